@@ -25,6 +25,32 @@ module ArJdbc
         end
       end
 
+      # Executes a (bulk) INSERT for many sets of binds using JDBC batching,
+      # this is one round trip per batch instead of one per row.
+      #
+      # NOTE: AR does not route its bulk inserts here (by design) : `insert_all`
+      # (and fixtures) already generate a single multi-row INSERT with literal
+      # values (only the SQL reaches the adapter), while every `create` needs
+      # its generated id (and callbacks) before the next one runs. Code importing
+      # many rows is expected to call this explicitly (or use `exec_deferred`
+      # for writes that do not need their result right away).
+      # @param sql the INSERT statement (with bind parameters)
+      # @param binds_list an array of binds (one per inserted row)
+      # @param batch_size rows executed per batch (defaults to `jdbc_batch_size`)
+      # @param returning_keys whether to return generated keys (where supported)
+      # @return [Array] update counts or `[update_counts, generated_keys]`
+      def exec_insert_batch(sql, name = nil, binds_list = [], batch_size: nil, returning_keys: false)
+        if preventing_writes?
+          raise ActiveRecord::ReadOnlyError, "Write query attempted while in readonly mode: #{sql}"
+        end
+
+        materialize_transactions
+
+        log(sql, name, binds_list.first || NO_BINDS) do
+          @connection.execute_batch(sql, binds_list, batch_size, returning_keys)
+        end
+      end
+
       # It appears that at this point (AR 5.0) "prepare" should only ever be true
       # if prepared statements are enabled
       def exec_query(sql, name = nil, binds = NO_BINDS, prepare: false)
@@ -45,6 +71,52 @@ module ArJdbc
         end
       end
 
+      # Executes a query asynchronously (on a separate connection) and returns
+      # a {FutureResult}, similar to AR's `load_async` this allows running
+      # several independent queries concurrently. Within a transaction the
+      # query runs right away (on this connection) to see uncommitted changes.
+      # @return [FutureResult]
+      def exec_query_async(sql, name = nil, binds = NO_BINDS)
+        if transaction_open?
+          return FutureResult.new(self, nil, sql, name, binds, exec_query(sql, name, binds))
+        end
+
+        if without_prepared_statement?(binds)
+          future = @connection.execute_query_async(sql)
+        else
+          future = @connection.execute_prepared_query_async(sql, binds)
+        end
+        FutureResult.new(self, future, sql, name, binds)
+      end
+
+      # An (asynchronously loaded) query result.
+      class FutureResult
+
+        def initialize(adapter, future, sql, name, binds, result = nil)
+          @adapter, @future, @sql, @name, @binds = adapter, future, sql, name, binds
+          @result = result
+        end
+
+        # Waits for the query (if still running) and returns its result.
+        # @return [ActiveRecord::Result]
+        def result
+          return @result if @future.nil?
+          @result = @adapter.send(:log, @sql, @name, @binds) { @future.value }
+          @future = nil
+          @result
+        end
+
+        def pending?
+          !@future.nil? && !@future.done?
+        end
+
+        # Cancels the query (if still running).
+        def cancel
+          @future ? @future.cancel : false
+        end
+
+      end
+
       def exec_update(sql, name = nil, binds = NO_BINDS)
         if preventing_writes?
           raise ActiveRecord::ReadOnlyError, "Write query attempted while in readonly mode: #{sql}"
@@ -60,6 +132,49 @@ module ArJdbc
       end
       alias :exec_delete :exec_update
 
+      # Executes a write statement whose result is not needed. With the
+      # `deferred_writes: true` config option, within a transaction, the write
+      # is queued and executed (as a batch along with consecutive writes using
+      # the same SQL) before the next statement or at the latest on commit.
+      # @note errors are only raised when the queued writes get flushed
+      # @return the affected row count or `nil` when deferred
+      def exec_deferred(sql, name = nil, binds = NO_BINDS)
+        if preventing_writes?
+          raise ActiveRecord::ReadOnlyError, "Write query attempted while in readonly mode: #{sql}"
+        end
+
+        materialize_transactions
+
+        log(sql, name, binds) { @connection.execute_deferred(sql, binds) }
+      end
+
+      # Runs the block with a different statement timeout (in milliseconds),
+      # statements running longer get cancelled (as with the connection wide
+      # `statement_timeout_ms` config option). Interrupting the thread (e.g. a
+      # `Timeout`) also cancels a running statement.
+      def with_statement_timeout(timeout_ms, &block)
+        @connection.with_statement_timeout(timeout_ms, &block)
+      end
+
+      # Executes SQL that might produce several results (e.g. a script or a
+      # stored procedure call) in a single round trip, returning every result
+      # set (as an `ActiveRecord::Result`) and update count (an integer).
+      # @yield [result] each result as it's read (instead of returning all)
+      # @return [Array] results or the number of results yielded
+      def exec_multi(sql, name = nil, binds = NO_BINDS, &block)
+        if preventing_writes? && write_query?(sql)
+          raise ActiveRecord::ReadOnlyError, "Write query attempted while in readonly mode: #{sql}"
+        end
+
+        materialize_transactions
+
+        if without_prepared_statement?(binds)
+          log(sql, name) { @connection.execute_multi(sql, &block) }
+        else
+          log(sql, name, binds) { @connection.execute_multi(sql, binds, &block) }
+        end
+      end
+
       # overridden to support legacy binds
       def insert(arel, name = nil, pk = nil, id_value = nil, sequence_name = nil, binds = [])
         binds = convert_legacy_binds_to_attributes(binds) if binds.first.is_a?(Array)
@@ -95,6 +210,29 @@ module ArJdbc
         super
       end
 
+      # Streams a query's result using a (JDBC) cursor, yielding batches of
+      # (up to `batch_size`) rows as `ActiveRecord::Result` objects. Unlike with
+      # {#select_all} the whole result never needs to be loaded in memory.
+      # The statement is kept open while yielding and closed once done.
+      # @note MySQL's driver only streams with the `useCursorFetch=true` property.
+      def select_in_batches(arel, name = nil, binds = NO_BINDS, batch_size: 1000, &block)
+        return to_enum(__method__, arel, name, binds, batch_size: batch_size) unless block_given?
+
+        sql, binds = to_sql_and_binds(arel, binds)
+
+        materialize_transactions
+
+        if without_prepared_statement?(binds)
+          cursor = log(sql, name) { @connection.execute_cursor(sql, nil, batch_size) }
+        else
+          cursor = log(sql, name, binds) { @connection.execute_cursor(sql, binds, batch_size) }
+        end
+        cursor.each_chunk(&block) if cursor
+        nil
+      ensure
+        cursor.close if cursor
+      end
+
       private
 
       def convert_legacy_binds_to_attributes(binds)
@@ -33,6 +33,7 @@ module ArJdbc
       # Clears the prepared statements cache.
       def clear_cache!
         @statements.clear
+        @connection.clear_statement_cache if @connection # (JDBC) statements cached on the Java side
       end
 
       def delete_cached_statement(sql)
@@ -10,6 +10,7 @@ require 'arjdbc/jdbc/error'
 require 'arjdbc/jdbc/connection_methods'
 require 'arjdbc/jdbc/column'
 require 'arjdbc/jdbc/connection'
+require 'arjdbc/jdbc/lazy_result'
 require 'arjdbc/jdbc/callbacks'
 require 'arjdbc/jdbc/extension'
 require 'arjdbc/jdbc/type_converter'
@@ -252,6 +253,25 @@ module ActiveRecord
         end
       end
 
+      # Similar to {#exec_query_raw} with a block, except that rows are yielded
+      # in slices (an array of row value arrays) instead of one by one.
+      # @param sql the query string (or AREL object)
+      # @param name logging marker for the executed SQL statement log entry
+      # @param binds the bind parameters
+      # @param slice_size maximum number of rows yielded at once
+      # @param reuse_rows whether the yielded slice (and row arrays) get reused
+      # for the next slice, the block needs to copy rows it wants to keep
+      # @yield [rows] e.g. `[ [id1, name1], [id2, name2] ]`
+      def exec_query_raw_slices(sql, name = 'SQL', binds = [], slice_size: 1000, reuse_rows: false, &block)
+        sql = to_sql(sql, binds) if sql.respond_to?(:to_sql)
+
+        if prepared_statements?
+          log(sql, name, binds) { @connection.execute_query_raw_slices(sql, slice_size, nil, binds, reuse_rows, &block) }
+        else
+          log(sql, name) { @connection.execute_query_raw_slices(sql, slice_size, nil, nil, reuse_rows, &block) }
+        end
+      end
+
       # Executes the SQL statement in the context of this connection.
       # The return value from this method depends on the SQL type (whether
       # it's a SELECT, INSERT etc.). For INSERTs a generated id might get
@@ -0,0 +1,72 @@
+# frozen_string_literal: true
+
+module ActiveRecord
+  module ConnectionAdapters
+    class JdbcConnection
+      # An `ActiveRecord::Result` backed by Java column buffers (a `ColumnarResult`)
+      # returned when the connection is configured with `columnar_results: true`.
+      # Ruby values are only created for the cells being read, e.g. using
+      # {#column_values} or {#value_at} does not convert the remaining columns.
+      # Once {#rows} got built (e.g. for a copy) values are read from the rows.
+      class LazyResult < ::ActiveRecord::Result
+
+        def initialize(buffer, column_types = {})
+          super(buffer.columns, nil, column_types)
+          @buffer = buffer
+        end
+
+        def rows
+          @rows ||= @buffer.rows
+        end
+
+        def length
+          @buffer.length
+        end
+
+        def empty?
+          @buffer.length == 0
+        end
+
+        # @param n the number of rows (hashes) to return, all rows get built
+        def first(n = nil)
+          return hash_rows.first(n) if n
+          row = @rows ? @rows.first : @buffer.row(0)
+          row && Hash[@columns.zip(row)]
+        end
+
+        # @see #first
+        def last(n = nil)
+          return hash_rows.last(n) if n
+          row = @rows ? @rows.last : @buffer.row(@buffer.length - 1)
+          row && Hash[@columns.zip(row)]
+        end
+
+        # @param column name or (zero-based) index
+        # @return an array of (converted) values for the given column
+        def column_values(column)
+          index = column.is_a?(Integer) ? column : @columns.index(column.to_s)
+          return nil unless index
+          @rows ? @rows.map { |row| row[index] } : @buffer.column(index)
+        end
+
+        # @param row (zero-based) row index
+        # @param column name or (zero-based) index
+        def value_at(row, column)
+          index = column.is_a?(Integer) ? column : @columns.index(column.to_s)
+          return nil unless index
+          return @buffer.value_at(row, index) unless @rows
+          values = row >= 0 && index >= 0 && @rows[row]
+          values ? values[index] : nil
+        end
+
+        private
+
+        def hash_rows
+          rows
+          super
+        end
+
+      end
+    end
+  end
+end
@@ -452,6 +452,48 @@ module ArJdbc
       sql
     end
 
+    COPY_FORMATS = %w( text csv binary ).freeze # :nodoc:
+
+    # Bulk loads rows using `COPY table (columns) FROM STDIN`, a lot faster
+    # than (even batched) INSERTs. The source is either an enumerable of rows
+    # (arrays of values) encoded in Java as they are streamed to the server,
+    # or an IO with data in the given `format` (`:text`, `:csv` or `:binary`).
+    # Rows are always encoded in the (default) text format.
+    # @return [Integer] number of rows copied
+    def copy_from(table_name, columns, source, format: nil)
+      if preventing_writes?
+        raise ActiveRecord::ReadOnlyError, "Write query attempted while in readonly mode: COPY #{table_name}"
+      end
+      if format
+        format = format.to_s.downcase
+        unless COPY_FORMATS.include?(format)
+          raise ArgumentError, "unsupported COPY format: #{format.inspect} (expected one of #{COPY_FORMATS.join(', ')})"
+        end
+        if format != 'text' && !source.respond_to?(:read)
+          raise ArgumentError, "COPY format #{format} is only supported with an IO source (rows are copied as text)"
+        end
+      end
+
+      sql = +"COPY #{quote_table_name(table_name)}"
+      sql << " (#{columns.map { |column| quote_column_name(column) }.join(', ')})" if columns && !columns.empty?
+      sql << ' FROM STDIN'
+      sql << " WITH (FORMAT #{format})" if format
+
+      materialize_transactions
+
+      log(sql, 'COPY') { @connection.copy_from(sql, source) }
+    end
+
+    # Exports data using a `COPY ... TO STDOUT` statement, the data (in the
+    # format requested by the statement e.g. CSV) is streamed into the given
+    # IO (or Java `OutputStream`) or yielded in (binary string) chunks.
+    # @return [Integer] number of rows copied
+    def copy_to(sql, io = nil, &block)
+      materialize_transactions
+
+      log(sql, 'COPY') { @connection.copy_to(sql, io, &block) }
+    end
+
     def build_truncate_statements(*table_names)
       "TRUNCATE TABLE #{table_names.map(&method(:quote_table_name)).join(", ")}"
     end
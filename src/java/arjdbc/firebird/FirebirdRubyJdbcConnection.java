@@ -23,6 +23,8 @@
  */
 package arjdbc.firebird;
 
+import arjdbc.jdbc.ColumnarResult;
+import arjdbc.jdbc.ColumnConverter;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import java.sql.Connection;
@@ -61,6 +63,12 @@ public class FirebirdRubyJdbcConnection extends RubyJdbcConnection {
         }
     };
 
+    @Override // strings are converted using stringToRuby
+    protected int columnarBufferType(final ColumnData column) {
+        final int type = super.columnarBufferType(column);
+        return type == ColumnarResult.STRING ? ColumnarResult.OBJECT : type;
+    }
+
     @Override // resultSet.wasNull() might be falsy for '' treated as null
     protected IRubyObject stringToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
@@ -95,6 +103,18 @@ public class FirebirdRubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        switch (type) {
+        case SMALL_CHAR_1:
+            return (ctx, runtime, rs, index) -> smallChar1ToRuby(runtime, rs, index);
+        case SMALL_CHAR_2:
+            return (ctx, runtime, rs, index) -> smallChar2ToRuby(runtime, rs, index);
+        }
+        return super.columnConverter(context, resultSet, column, type);
+    }
+
     private static IRubyObject smallChar1ToRuby(
         final Ruby runtime, final ResultSet resultSet, final int column)
         throws SQLException {
@@ -30,6 +30,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 
+import arjdbc.jdbc.ColumnConverter;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import org.jruby.Ruby;
@@ -72,4 +73,11 @@ public class InformixRubyJdbcConnection extends RubyJdbcConnection {
         if ( type == Types.LONGVARCHAR ) type = Types.CLOB;
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
+
+    @Override
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, int type) throws SQLException {
+        if ( type == Types.LONGVARCHAR ) type = Types.CLOB;
+        return super.columnConverter(context, resultSet, column, type);
+    }
 }
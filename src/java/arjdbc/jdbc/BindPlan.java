@@ -0,0 +1,67 @@
+package arjdbc.jdbc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jruby.RubyArray;
+import org.jruby.RubyBasicObject;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * A (resolved) bind parameter plan for a SQL statement: the JDBC type of
+ * each bind position, valid as long as binds have the same attribute types.
+ * AR types are (mostly) shared instances thus an identity check is enough
+ * to re-use the resolved JDBC types, skipping the (Ruby) type dispatch.
+ *
+ * @see RubyJdbcConnection#setStatementParameters(org.jruby.runtime.ThreadContext, java.sql.Connection, java.sql.PreparedStatement, RubyArray, String)
+ */
+final class BindPlan {
+
+    /**
+     * JDBC type marker for positions that need to be resolved on every execution
+     * (e.g. attributes with a generic type where the value decides).
+     */
+    static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private final IRubyObject[] types;
+    final int[] jdbcTypes;
+
+    BindPlan(final IRubyObject[] types, final int[] jdbcTypes) {
+        this.types = types;
+        this.jdbcTypes = jdbcTypes;
+    }
+
+    boolean matches(final RubyArray binds) {
+        final IRubyObject[] types = this.types;
+        if ( binds.getLength() != types.length ) return false;
+        for ( int i = 0; i < types.length; i++ ) {
+            if ( attributeType(binds.eltInternal(i)) != types[i] ) return false;
+        }
+        return true;
+    }
+
+    static IRubyObject attributeType(final IRubyObject attribute) {
+        return ((RubyBasicObject) attribute).getInstanceVariable("@type");
+    }
+
+    /**
+     * A (LRU) cache of plans keyed by SQL.
+     */
+    @SuppressWarnings("serial")
+    static final class Cache extends LinkedHashMap<String, BindPlan> {
+
+        private final int limit;
+
+        Cache(final int limit) {
+            super(16, 0.75f, true); // access-order
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, BindPlan> eldest) {
+            return size() > limit;
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.jruby.Ruby;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * Converts a result set column value (of the current row) into a Ruby object.
+ * Converters get resolved once per result set column, so that mapping rows
+ * does not need to dispatch on the column's (JDBC) type for every value.
+ *
+ * @see RubyJdbcConnection#columnConverter(ThreadContext, ResultSet, int, int)
+ */
+public interface ColumnConverter {
+
+    /**
+     * @param context current thread context
+     * @param runtime the Ruby runtime
+     * @param resultSet the result set positioned at the row being converted
+     * @param column the (one based) column index
+     * @return the converted (Ruby) value
+     * @throws SQLException
+     */
+    IRubyObject convert(ThreadContext context, Ruby runtime, ResultSet resultSet, int column) throws SQLException;
+
+}
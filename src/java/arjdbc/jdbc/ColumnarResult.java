@@ -0,0 +1,376 @@
+package arjdbc.jdbc;
+
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jcodings.Encoding;
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.RubyBignum;
+import org.jruby.RubyClass;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyString;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.runtime.Block;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+import arjdbc.jdbc.RubyJdbcConnection.ColumnData;
+
+/**
+ * A (fully read) result set copied into typed column buffers.
+ * Integer, floating point and character columns are kept as primitives
+ * (<code>long[]</code>, <code>double[]</code> and byte slices with a null bitmap),
+ * Ruby objects for such columns are only created for the cells being read.
+ * Other column types get converted eagerly (using the connection's column converters).
+ *
+ * Used by <code>ActiveRecord::ConnectionAdapters::JdbcConnection::LazyResult</code>
+ * when a connection has been configured with <code>columnar_results: true</code>.
+ */
+public class ColumnarResult extends RubyObject {
+
+    /**
+     * Column buffer types.
+     * @see RubyJdbcConnection#columnarBufferType(ColumnData)
+     */
+    public static final int OBJECT = 0; // eager (column converter)
+    public static final int LONG = 1; // getLong
+    public static final int BIG_INTEGER = 2; // getString (BIGINT might be unsigned)
+    public static final int DOUBLE = 3; // getDouble
+    public static final int STRING = 4; // getString
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    static RubyClass createColumnarResultClass(Ruby runtime, RubyClass jdbcConnection) {
+        RubyClass rubyClass = jdbcConnection.defineClassUnder("ColumnarResult", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        rubyClass.defineAnnotatedMethods(ColumnarResult.class);
+        return rubyClass;
+    }
+
+    static RubyClass getColumnarResult(final Ruby runtime) {
+        return RubyJdbcConnection.getJdbcConnection(runtime).getClass("ColumnarResult");
+    }
+
+    /**
+     * @param runtime
+     * @return <code>ActiveRecord::ConnectionAdapters::JdbcConnection::LazyResult</code>
+     */
+    static RubyClass getLazyResult(final Ruby runtime) {
+        return RubyJdbcConnection.getJdbcConnection(runtime).getClass("LazyResult");
+    }
+
+    private final ColumnData[] columns;
+    private final Column[] buffers;
+    private int length;
+
+    private ColumnarResult(final Ruby runtime, final RubyClass clazz, final ColumnData[] columns, final Column[] buffers) {
+        super(runtime, clazz);
+        this.columns = columns;
+        this.buffers = buffers;
+    }
+
+    /**
+     * Reads the result set into column buffers.
+     * @param context current thread context
+     * @param connection the connection used to (eagerly) convert non-buffered columns
+     * @param resultSet the (positioned before first) result set to read
+     * @param columns column data
+     * @return a columnar result
+     * @throws SQLException
+     */
+    static ColumnarResult newResult(final ThreadContext context, final RubyJdbcConnection connection,
+        final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
+        final Ruby runtime = context.runtime;
+
+        final Column[] buffers = new Column[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            buffers[i] = newColumn(context, connection, resultSet, columns[i]);
+        }
+
+        final ColumnarResult result = new ColumnarResult(runtime, getColumnarResult(runtime), columns, buffers);
+
+        int row = 0;
+        while (resultSet.next()) {
+            for (int i = 0; i < buffers.length; i++) {
+                buffers[i].read(context, resultSet, row);
+            }
+            row++;
+        }
+        result.length = row;
+
+        return result;
+    }
+
+    /**
+     * @param context current thread context
+     * @param connection
+     * @param resultSet
+     * @param columns
+     * @return a new <code>LazyResult</code> (<code>ActiveRecord::Result</code>) instance
+     * @throws SQLException
+     */
+    static IRubyObject newLazyResult(final ThreadContext context, final RubyJdbcConnection connection,
+        final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
+        final ColumnarResult result = newResult(context, connection, resultSet, columns);
+        return getLazyResult(context.runtime).newInstance(context, result, Block.NULL_BLOCK); // LazyResult.new
+    }
+
+    private static Column newColumn(final ThreadContext context, final RubyJdbcConnection connection,
+        final ResultSet resultSet, final ColumnData column) throws SQLException {
+        final Ruby runtime = context.runtime;
+        switch (connection.columnarBufferType(column)) {
+            case LONG: return new LongColumn(column.index);
+            case BIG_INTEGER: return new BigIntegerColumn(column.index);
+            case DOUBLE: return new DoubleColumn(column.index);
+            case STRING: return new StringColumn(runtime, column.index);
+            default:
+                return new ObjectColumn(column.index, connection.columnConverter(context, resultSet, column.index, column.type));
+        }
+    }
+
+    /**
+     * @param type JDBC type
+     * @return the default buffer type for a given column type
+     */
+    static int defaultBufferType(final int type) {
+        switch (type) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return LONG;
+            case Types.BIGINT:
+                return BIG_INTEGER;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return STRING;
+            default:
+                return OBJECT;
+        }
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * @param context current thread context
+     * @param row (zero based) row index
+     * @param column (zero based) column index
+     * @return converted value of the cell
+     */
+    public IRubyObject getValue(final ThreadContext context, final int row, final int column) {
+        return buffers[column].get(context, row);
+    }
+
+    @JRubyMethod
+    public IRubyObject columns(final ThreadContext context) {
+        final IRubyObject[] names = new IRubyObject[columns.length];
+        for (int i = 0; i < columns.length; i++) names[i] = columns[i].getName(context);
+        return RubyArray.newArrayNoCopy(context.runtime, names);
+    }
+
+    @JRubyMethod(name = { "length", "size" })
+    public IRubyObject length(final ThreadContext context) {
+        return context.runtime.newFixnum(length);
+    }
+
+    @JRubyMethod(name = "value_at", required = 2)
+    public IRubyObject value_at(final ThreadContext context, final IRubyObject row, final IRubyObject column) {
+        final int r = RubyNumeric.fix2int(row), c = RubyNumeric.fix2int(column);
+        if (r < 0 || r >= length || c < 0 || c >= buffers.length) return context.nil;
+        return getValue(context, r, c);
+    }
+
+    @JRubyMethod(name = "row", required = 1)
+    public IRubyObject row(final ThreadContext context, final IRubyObject index) {
+        final int r = RubyNumeric.fix2int(index);
+        if (r < 0 || r >= length) return context.nil;
+        return newRow(context, r);
+    }
+
+    @JRubyMethod(name = "column", required = 1)
+    public IRubyObject column(final ThreadContext context, final IRubyObject index) {
+        final int c = RubyNumeric.fix2int(index);
+        if (c < 0 || c >= buffers.length) return context.nil;
+        final Column column = buffers[c];
+        final IRubyObject[] values = new IRubyObject[length];
+        for (int r = 0; r < length; r++) values[r] = column.get(context, r);
+        return RubyArray.newArrayNoCopy(context.runtime, values);
+    }
+
+    @JRubyMethod(name = "rows")
+    public IRubyObject rows(final ThreadContext context) {
+        final IRubyObject[] rows = new IRubyObject[length];
+        for (int r = 0; r < length; r++) rows[r] = newRow(context, r);
+        return RubyArray.newArrayNoCopy(context.runtime, rows);
+    }
+
+    private RubyArray newRow(final ThreadContext context, final int r) {
+        final IRubyObject[] row = new IRubyObject[buffers.length];
+        for (int c = 0; c < buffers.length; c++) row[c] = buffers[c].get(context, r);
+        return RubyArray.newArrayNoCopy(context.runtime, row);
+    }
+
+    private static abstract class Column {
+
+        final int index; // JDBC (one based) column index
+        final BitSet nulls = new BitSet();
+
+        Column(final int index) { this.index = index; }
+
+        abstract void read(ThreadContext context, ResultSet resultSet, int row) throws SQLException;
+
+        abstract IRubyObject get(ThreadContext context, int row);
+
+    }
+
+    private static final class LongColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        LongColumn(final int index) { super(index); }
+
+        void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final long value = resultSet.getLong(index);
+            if ( value == 0 && resultSet.wasNull() ) { nulls.set(row); return; }
+            if ( row >= values.length ) values = Arrays.copyOf(values, Math.max(row + 1, values.length << 1));
+            values[row] = value;
+        }
+
+        IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            return context.runtime.newFixnum(values[row]);
+        }
+
+    }
+
+    private static final class BigIntegerColumn extends Column {
+
+        private long[] values = new long[INITIAL_CAPACITY];
+        private Map<Integer, BigInteger> overflow; // (unsigned) values not fitting a long
+
+        BigIntegerColumn(final int index) { super(index); }
+
+        void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final String value = resultSet.getString(index);
+            if ( value == null ) { nulls.set(row); return; }
+            if ( row >= values.length ) values = Arrays.copyOf(values, Math.max(row + 1, values.length << 1));
+            try {
+                values[row] = Long.parseLong(value);
+            }
+            catch (NumberFormatException e) {
+                if ( overflow == null ) overflow = new HashMap<>();
+                overflow.put(row, new BigInteger(value));
+            }
+        }
+
+        IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            if ( overflow != null ) {
+                final BigInteger value = overflow.get(row);
+                if ( value != null ) return RubyBignum.bignorm(context.runtime, value);
+            }
+            return context.runtime.newFixnum(values[row]);
+        }
+
+    }
+
+    private static final class DoubleColumn extends Column {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+
+        DoubleColumn(final int index) { super(index); }
+
+        void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final double value = resultSet.getDouble(index);
+            if ( value == 0 && resultSet.wasNull() ) { nulls.set(row); return; }
+            if ( row >= values.length ) values = Arrays.copyOf(values, Math.max(row + 1, values.length << 1));
+            values[row] = value;
+        }
+
+        IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            return context.runtime.newFloat(values[row]);
+        }
+
+    }
+
+    private static final class StringColumn extends Column {
+
+        private final Encoding encoding;
+        private final Charset charset;
+
+        private byte[] bytes = new byte[INITIAL_CAPACITY * 16];
+        private int[] ends = new int[INITIAL_CAPACITY]; // end offset of each row's bytes
+        private int size;
+
+        StringColumn(final Ruby runtime, final int index) {
+            super(index);
+            // same encoding as StringHelper.newDefaultInternalString
+            Encoding enc = runtime.getDefaultInternalEncoding();
+            if (enc == null) enc = runtime.getEncodingService().getJavaDefault();
+            this.encoding = enc;
+            this.charset = runtime.getEncodingService().charsetForEncoding(enc);
+        }
+
+        void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            final String value = resultSet.getString(index);
+            if ( row >= ends.length ) ends = Arrays.copyOf(ends, ends.length << 1);
+            if ( value == null ) nulls.set(row);
+            else {
+                final byte[] valueBytes = value.getBytes(charset);
+                final int newSize = size + valueBytes.length;
+                if ( newSize > bytes.length ) {
+                    bytes = Arrays.copyOf(bytes, Math.max(bytes.length << 1, newSize));
+                }
+                System.arraycopy(valueBytes, 0, bytes, size, valueBytes.length);
+                size = newSize;
+            }
+            ends[row] = size;
+        }
+
+        IRubyObject get(final ThreadContext context, final int row) {
+            if ( nulls.get(row) ) return context.nil;
+            final int begin = row == 0 ? 0 : ends[row - 1];
+            return RubyString.newString(context.runtime, bytes, begin, ends[row] - begin, encoding);
+        }
+
+    }
+
+    private static final class ObjectColumn extends Column {
+
+        private final ColumnConverter converter;
+        private IRubyObject[] values = new IRubyObject[INITIAL_CAPACITY];
+
+        ObjectColumn(final int index, final ColumnConverter converter) {
+            super(index);
+            this.converter = converter;
+        }
+
+        void read(final ThreadContext context, final ResultSet resultSet, final int row) throws SQLException {
+            if ( row >= values.length ) values = Arrays.copyOf(values, Math.max(row + 1, values.length << 1));
+            values[row] = converter.convert(context, context.runtime, resultSet, index);
+        }
+
+        IRubyObject get(final ThreadContext context, final int row) {
+            return values[row];
+        }
+
+    }
+
+}
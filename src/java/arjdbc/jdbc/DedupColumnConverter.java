@@ -0,0 +1,62 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+
+import org.jruby.Ruby;
+import org.jruby.RubyString;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.ByteList;
+
+/**
+ * Wraps a (string) column converter, repeated values share the same (frozen)
+ * Ruby string. The table is per result set (column) and bounded in size,
+ * it gets dropped once the column turns out to have a high cardinality.
+ *
+ * NOTE: not thread-safe, same as a result set is not.
+ *
+ * @see RubyJdbcConnection#dedup_strings(ThreadContext)
+ */
+final class DedupColumnConverter implements ColumnConverter {
+
+    private static final int SAMPLE_SIZE = 1024; // lookups before (re-)checking stats
+
+    private final ColumnConverter converter;
+    private final int maxSize;
+
+    private HashMap<ByteList, RubyString> table;
+    private int lookups, hits;
+
+    DedupColumnConverter(final ColumnConverter converter, final int maxSize) {
+        this.converter = converter;
+        this.maxSize = maxSize;
+        this.table = new HashMap<>();
+    }
+
+    @Override
+    public IRubyObject convert(final ThreadContext context, final Ruby runtime,
+        final ResultSet resultSet, final int column) throws SQLException {
+        final IRubyObject value = converter.convert(context, runtime, resultSet, column);
+        if ( table == null || ! ( value instanceof RubyString ) ) return value;
+
+        final RubyString str = (RubyString) value;
+        final RubyString shared = table.get(str.getByteList());
+        if ( ++lookups % SAMPLE_SIZE == 0 ) checkStats();
+        if ( shared != null ) {
+            hits++; return shared;
+        }
+        if ( table != null && table.size() < maxSize ) {
+            str.setFrozen(true);
+            table.put(str.getByteList(), str);
+        }
+        return str;
+    }
+
+    // less than half of the values are repeated - not worth the lookups
+    private void checkStats() {
+        if ( hits * 2 < lookups ) table = null;
+    }
+
+}
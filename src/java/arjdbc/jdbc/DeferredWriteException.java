@@ -0,0 +1,32 @@
+package arjdbc.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * A deferred (write) statement failed when flushed, the original statement
+ * and its binds are available as {@link #getSQL()} and {@link #getBinds()}.
+ * SQL state and vendor code are the same as of the driver's exception (cause).
+ */
+@SuppressWarnings("serial")
+public class DeferredWriteException extends SQLException {
+
+    private final String sql;
+    private final transient Object binds;
+
+    DeferredWriteException(final String sql, final Object binds, final SQLException cause) {
+        super(cause.getMessage() + " (deferred statement: " + sql + ")", cause.getSQLState(), cause.getErrorCode(), cause);
+        this.sql = sql;
+        this.binds = binds;
+    }
+
+    /**
+     * @return the (deferred) statement's SQL
+     */
+    public String getSQL() { return sql; }
+
+    /**
+     * @return binds of the failed statement (if known) otherwise null
+     */
+    public Object getBinds() { return binds; }
+
+}
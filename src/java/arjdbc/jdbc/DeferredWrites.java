@@ -0,0 +1,53 @@
+package arjdbc.jdbc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jruby.RubyArray;
+
+/**
+ * Write statements queued (within a transaction) to be executed later, as
+ * JDBC batches. Consecutive writes using the same SQL end up in a single run
+ * (batch), statement order is kept across runs.
+ *
+ * @see RubyJdbcConnection#execute_deferred(org.jruby.runtime.ThreadContext, org.jruby.runtime.builtin.IRubyObject, org.jruby.runtime.builtin.IRubyObject)
+ */
+final class DeferredWrites {
+
+    static final class Run {
+
+        final String sql;
+        final List<RubyArray> binds = new ArrayList<>();
+
+        Run(final String sql) { this.sql = sql; }
+
+    }
+
+    private ArrayList<Run> runs = new ArrayList<>();
+    private int size;
+
+    synchronized void add(final String sql, final RubyArray binds) {
+        Run run = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        if ( run == null || ! run.sql.equals(sql) ) runs.add(run = new Run(sql));
+        run.binds.add(binds);
+        size++;
+    }
+
+    synchronized int size() { return size; }
+
+    boolean isEmpty() { return size == 0; } // NOTE: racy but only used as a (cheap) check
+
+    /**
+     * @return queued runs (in order), the queue is empty afterwards
+     */
+    synchronized List<Run> drain() {
+        final List<Run> runs = this.runs;
+        this.runs = new ArrayList<>(); size = 0;
+        return runs;
+    }
+
+    synchronized void clear() {
+        runs.clear(); size = 0;
+    }
+
+}
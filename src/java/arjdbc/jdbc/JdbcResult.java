@@ -14,6 +14,8 @@ import org.jruby.runtime.Block;
 import org.jruby.runtime.ThreadContext;
 import org.jruby.runtime.builtin.IRubyObject;
 
+import arjdbc.util.RowHashKeys;
+
 /**
  * This is a base Result class to be returned as the "raw" result.
  * It should be overridden for specific adapters to manage type maps
@@ -27,20 +29,46 @@ public class JdbcResult extends RubyObject {
     protected final int[] columnTypes;
     protected RubyString[] columnNames;
     protected final RubyJdbcConnection connection;
+    private final ResultColumns resultColumns; // non-null for cached statements
 
     protected JdbcResult(ThreadContext context, RubyClass clazz, RubyJdbcConnection connection, ResultSet resultSet) throws SQLException {
+        this(context, clazz, connection, resultSet, null);
+    }
+
+    /**
+     * @param context
+     * @param clazz
+     * @param connection
+     * @param resultSet
+     * @param resultColumns (cached) column metadata to reuse, might be null
+     * @throws SQLException
+     */
+    protected JdbcResult(ThreadContext context, RubyClass clazz, RubyJdbcConnection connection, ResultSet resultSet,
+                         ResultColumns resultColumns) throws SQLException {
         super(context.runtime, clazz);
 
         values = context.runtime.newArray();
         this.connection = connection;
+        this.resultColumns = resultColumns;
 
         final ResultSetMetaData resultMetaData = resultSet.getMetaData();
         final int columnCount = resultMetaData.getColumnCount();
-        // FIXME: if we support MSSQL we may need to change how we deal with omitting elements
-        columnNames = new RubyString[columnCount];
-        columnTypes = new int[columnCount];
-        extractColumnInfo(context, resultMetaData);
-        processResultSet(context, resultSet);
+        if (resultColumns != null && resultColumns.hasColumnNames(resultMetaData)) {
+            columnNames = resultColumns.columnNames;
+            columnTypes = resultColumns.columnTypes;
+        } else {
+            // FIXME: if we support MSSQL we may need to change how we deal with omitting elements
+            columnNames = new RubyString[columnCount];
+            columnTypes = new int[columnCount];
+            extractColumnInfo(context, resultMetaData);
+            if (resultColumns != null) resultColumns.setColumnNames(columnNames, columnTypes, resultMetaData);
+        }
+        try {
+            processResultSet(context, resultSet);
+        } catch (SQLException|RuntimeException e) {
+            if (resultColumns != null) resultColumns.invalidate(); // re-resolve on next execution
+            throw e;
+        }
     }
 
     /**
@@ -81,16 +109,12 @@ public class JdbcResult extends RubyObject {
      * @param context current thread context
      */
     protected void populateTuples(final ThreadContext context) {
-        int columnCount = columnNames.length;
+        final RowHashKeys keys = new RowHashKeys(context.runtime, columnNames);
         tuples = new RubyHash[values.size()];
 
         for (int i = 0; i < tuples.length; i++) {
             RubyArray currentRow = (RubyArray) values.eltInternal(i);
-            RubyHash hash = RubyHash.newHash(context.runtime);
-            for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
-                hash.fastASet(columnNames[columnIndex], currentRow.eltInternal(columnIndex));
-            }
-            tuples[i] = hash;
+            tuples[i] = keys.newRow(context.runtime, currentRow.toJavaArrayMaybeUnsafe());
         }
     }
 
@@ -104,11 +128,16 @@ public class JdbcResult extends RubyObject {
         Ruby runtime = context.runtime;
         int columnCount = columnNames.length;
 
+        final ColumnConverter[] converters = new ColumnConverter[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            converters[i] = connection.resultColumnConverter(context, resultSet, i + 1, columnTypes[i]); // Result Set is 1 based
+        }
+
         while (resultSet.next()) {
             final IRubyObject[] row = new IRubyObject[columnCount];
 
             for (int i = 0; i < columnCount; i++) {
-                row[i] = connection.jdbcToRuby(context, runtime, i + 1, columnTypes[i], resultSet); // Result Set is 1 based
+                row[i] = converters[i].convert(context, runtime, resultSet, i + 1);
             }
 
             values.append(RubyArray.newArrayNoCopy(context.runtime, row));
@@ -123,6 +152,16 @@ public class JdbcResult extends RubyObject {
      */
     public IRubyObject toARResult(final ThreadContext context) throws SQLException {
         final RubyClass Result = RubyJdbcConnection.getResult(context.runtime);
+        if (resultColumns != null) { // column names and types are shared (cached) between results
+            IRubyObject columnTypeMap = resultColumns.columnTypeMap;
+            if (columnTypeMap == null) {
+                columnTypeMap = columnTypeMap(context);
+                columnTypeMap.setFrozen(true);
+                resultColumns.columnTypeMap = columnTypeMap;
+            }
+            final RubyArray rubyColumnNames = RubyArray.newArray(context.runtime, getColumnNames());
+            return Result.newInstance(context, rubyColumnNames, values, columnTypeMap, Block.NULL_BLOCK);
+        }
         // FIXME: Is this broken?  no copy of an array AR::Result can modify?  or should it be frozen?
         final RubyArray rubyColumnNames = RubyArray.newArrayNoCopy(context.runtime, getColumnNames());
         return Result.newInstance(context, rubyColumnNames, values, columnTypeMap(context), Block.NULL_BLOCK);
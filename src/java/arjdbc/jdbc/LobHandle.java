@@ -0,0 +1,203 @@
+package arjdbc.jdbc;
+
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.SQLException;
+
+import org.jruby.Ruby;
+import org.jruby.RubyClass;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyString;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.ByteList;
+
+import static arjdbc.util.StringHelper.newDefaultInternalString;
+import static arjdbc.util.StringHelper.newString;
+
+/**
+ * A (lazy) LOB value, returned for BLOB/CLOB columns with <code>lazy_lobs</code>.
+ * Behaves (mostly) as a read-only IO, bytes (characters for a CLOB) are only
+ * read from the driver when accessed. The handle uses the driver's LOB (locator)
+ * thus reading is only guaranteed to work while the transaction it was
+ * loaded in is active, unless the driver keeps LOB values around.
+ *
+ * @see RubyJdbcConnection#lazy_lobs_p(ThreadContext)
+ */
+public class LobHandle extends RubyObject {
+
+    static RubyClass createLobHandleClass(Ruby runtime, RubyClass jdbcConnection) {
+        RubyClass rubyClass = jdbcConnection.defineClassUnder("Lob", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        rubyClass.defineAnnotatedMethods(LobHandle.class);
+        return rubyClass;
+    }
+
+    static RubyClass getLobHandle(final Ruby runtime) {
+        return RubyJdbcConnection.getJdbcConnection(runtime).getClass("Lob");
+    }
+
+    private final RubyJdbcConnection connection;
+    private final Blob blob;
+    private final Clob clob;
+
+    private long pos; // 0-based
+    private boolean closed;
+
+    LobHandle(final ThreadContext context, final RubyJdbcConnection connection, final Blob blob) {
+        super(context.runtime, getLobHandle(context.runtime));
+        this.connection = connection;
+        this.blob = blob; this.clob = null;
+    }
+
+    LobHandle(final ThreadContext context, final RubyJdbcConnection connection, final Clob clob) {
+        super(context.runtime, getLobHandle(context.runtime));
+        this.connection = connection;
+        this.blob = null; this.clob = clob;
+    }
+
+    @JRubyMethod(name = "binary?")
+    public IRubyObject binary_p(final ThreadContext context) {
+        return context.runtime.newBoolean(blob != null);
+    }
+
+    /**
+     * @param context
+     * @return the LOB's length (in bytes or characters for a CLOB)
+     */
+    @JRubyMethod(name = { "size", "length" })
+    public IRubyObject size(final ThreadContext context) {
+        try {
+            return context.runtime.newFixnum(length());
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+    }
+
+    @JRubyMethod
+    public IRubyObject pos(final ThreadContext context) {
+        return context.runtime.newFixnum(pos);
+    }
+
+    @JRubyMethod
+    public IRubyObject rewind(final ThreadContext context) {
+        pos = 0;
+        return context.runtime.newFixnum(0);
+    }
+
+    @JRubyMethod(name = "eof?")
+    public IRubyObject eof_p(final ThreadContext context) {
+        try {
+            return context.runtime.newBoolean(pos >= length());
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+    }
+
+    /**
+     * Reads the rest of the LOB (from the current position).
+     * @param context
+     * @return a string, empty when at the end
+     */
+    @JRubyMethod
+    public IRubyObject read(final ThreadContext context) {
+        try {
+            final RubyString str = read(context.runtime, length() - pos);
+            if ( str != null ) return str;
+            return blob != null ? newString(context.runtime, ByteList.NULL_ARRAY) : newDefaultInternalString(context.runtime, "");
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+    }
+
+    /**
+     * Reads (up to) length bytes (or characters for a CLOB).
+     * @param context
+     * @param length
+     * @return a string or nil when at the end
+     */
+    @JRubyMethod
+    public IRubyObject read(final ThreadContext context, final IRubyObject length) {
+        if ( length == context.nil ) return read(context);
+        try {
+            final long len = Math.min(RubyNumeric.num2long(length), length() - pos);
+            final RubyString str = read(context.runtime, len);
+            return str == null ? context.nil : str;
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+    }
+
+    /**
+     * @param context
+     * @return the whole LOB's content (regardless of the current position)
+     */
+    @JRubyMethod(name = { "to_s", "to_str" })
+    public IRubyObject to_s(final ThreadContext context) {
+        final long pos = this.pos;
+        try {
+            this.pos = 0;
+            return read(context);
+        }
+        finally { this.pos = pos; }
+    }
+
+    @JRubyMethod(name = "closed?")
+    public IRubyObject closed_p(final ThreadContext context) {
+        return context.runtime.newBoolean(closed);
+    }
+
+    /**
+     * Releases the LOB (resources held by the driver).
+     * @param context
+     * @return nil
+     */
+    @JRubyMethod
+    public IRubyObject close(final ThreadContext context) {
+        if ( closed ) return context.nil;
+        closed = true;
+        try {
+            if ( blob != null ) blob.free(); else clob.free();
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+        catch (AbstractMethodError e) { /* JDBC 3.0 driver */ }
+        return context.nil;
+    }
+
+    private long length() throws SQLException {
+        checkClosed();
+        return blob != null ? blob.length() : clob.length();
+    }
+
+    private RubyString read(final Ruby runtime, final long length) throws SQLException {
+        if ( length <= 0 ) return null;
+        if ( length > Integer.MAX_VALUE ) {
+            throw new SQLException("LOB chunk of " + length + " too large to be read (in memory)");
+        }
+        final RubyString str;
+        if ( blob != null ) {
+            final byte[] bytes = blob.getBytes(pos + 1, (int) length);
+            pos += bytes.length;
+            str = newString(runtime, bytes);
+        }
+        else {
+            final String chars = clob.getSubString(pos + 1, (int) length);
+            pos += chars.length();
+            str = newDefaultInternalString(runtime, chars);
+        }
+        return str;
+    }
+
+    private void checkClosed() throws SQLException {
+        if ( closed ) throw new SQLException("LOB handle closed");
+    }
+
+}
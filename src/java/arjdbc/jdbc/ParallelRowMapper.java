@@ -0,0 +1,164 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.SafePropertyAccessor;
+
+import arjdbc.jdbc.RubyJdbcConnection.ColumnData;
+import arjdbc.util.BufferedResultSet;
+
+/**
+ * Maps (large) results by converting rows in parallel.
+ *
+ * Rows up to the threshold get mapped as usual, the remaining ones are read
+ * into a (raw value) buffer on the calling thread, JDBC-to-Ruby conversion of
+ * the buffered rows is then split across a {@link ForkJoinPool} of (daemon)
+ * threads owned by the adapter, sized using
+ * <code>-Darjdbc.parallel_conversion.pool_size</code> (defaults to the number
+ * of processors). Converters call into Ruby thus the JVM's common pool is not
+ * used, as that would block other (unrelated) work using it.
+ * Converters read values from a {@link BufferedResultSet} thus only columns
+ * whose values can be buffered (see {@link BufferedResultSet#readValue}) are
+ * supported.
+ *
+ * @see RubyJdbcConnection#isParallelConvertible(ColumnData)
+ */
+final class ParallelRowMapper {
+
+    private static final int MIN_CHUNK_ROWS = 512;
+
+    private static final int POOL_SIZE = Math.max(1, SafePropertyAccessor.getInt("arjdbc.parallel_conversion.pool_size",
+        Runtime.getRuntime().availableProcessors()));
+
+    private static volatile ForkJoinPool pool;
+
+    private ParallelRowMapper() { /* no instances */ }
+
+    private static ForkJoinPool pool() {
+        ForkJoinPool pool = ParallelRowMapper.pool;
+        if ( pool == null ) {
+            synchronized (ParallelRowMapper.class) {
+                pool = ParallelRowMapper.pool;
+                if ( pool == null ) {
+                    final AtomicInteger count = new AtomicInteger();
+                    ParallelRowMapper.pool = pool = new ForkJoinPool(POOL_SIZE, forkJoinPool -> {
+                        final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+                        thread.setName("arjdbc-convert-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, null, false);
+                }
+            }
+        }
+        return pool;
+    }
+
+    static RubyArray mapRows(final ThreadContext context,
+        final ColumnData[] columns, final ColumnConverter[] converters,
+        final ResultSet resultSet, final int threshold) throws SQLException {
+        final Ruby runtime = context.runtime;
+
+        final RubyArray resultRows = runtime.newArray();
+        while ( resultRows.size() < threshold ) {
+            if ( ! resultSet.next() ) return resultRows;
+            resultRows.append(RubyJdbcConnection.mapRow(context, runtime, columns, converters, resultSet));
+        }
+
+        int width = 0;
+        for ( final ColumnData column : columns ) width = Math.max(width, column.index);
+
+        Object[][] rows = new Object[1024][]; int size = 0;
+        while ( resultSet.next() ) {
+            final Object[] row = new Object[width];
+            for ( final ColumnData column : columns ) {
+                row[column.index - 1] = BufferedResultSet.readValue(resultSet, column.index, column.type);
+            }
+            if ( size == rows.length ) rows = Arrays.copyOf(rows, size + (size >> 1));
+            rows[size++] = row;
+        }
+        if ( size == 0 ) return resultRows;
+
+        final ForkJoinPool pool = pool();
+        final int chunk = Math.max(MIN_CHUNK_ROWS, size / (pool.getParallelism() * 4));
+
+        final IRubyObject[] mapped = new IRubyObject[size];
+        final ConvertRows task = new ConvertRows(runtime, columns, converters,
+            resultSet.getMetaData(), rows, size, mapped, 0, size, chunk);
+        pool.invoke(task);
+
+        final Exception failure = task.failure.get();
+        if ( failure instanceof SQLException ) throw (SQLException) failure;
+        if ( failure != null ) throw (RuntimeException) failure;
+
+        for ( int i = 0; i < size; i++ ) resultRows.append(mapped[i]);
+        return resultRows;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class ConvertRows extends RecursiveAction {
+
+        private final Ruby runtime;
+        private final ColumnData[] columns;
+        private final ColumnConverter[] converters;
+        private final ResultSetMetaData metaData;
+        private final Object[][] rows;
+        private final int size;
+        private final IRubyObject[] mapped;
+        private final int from, to, chunk;
+        final AtomicReference<Exception> failure;
+
+        ConvertRows(Ruby runtime, ColumnData[] columns, ColumnConverter[] converters,
+            ResultSetMetaData metaData, Object[][] rows, int size, IRubyObject[] mapped, int from, int to, int chunk) {
+            this(runtime, columns, converters, metaData, rows, size, mapped, from, to, chunk, new AtomicReference<Exception>());
+        }
+
+        private ConvertRows(Ruby runtime, ColumnData[] columns, ColumnConverter[] converters,
+            ResultSetMetaData metaData, Object[][] rows, int size, IRubyObject[] mapped, int from, int to, int chunk,
+            AtomicReference<Exception> failure) {
+            this.runtime = runtime; this.columns = columns; this.converters = converters;
+            this.metaData = metaData;
+            this.rows = rows; this.size = size; this.mapped = mapped;
+            this.from = from; this.to = to; this.chunk = chunk;
+            this.failure = failure;
+        }
+
+        @Override
+        protected void compute() {
+            if ( to - from > chunk ) {
+                final int mid = (from + to) >>> 1;
+                invokeAll(
+                    new ConvertRows(runtime, columns, converters, metaData, rows, size, mapped, from, mid, chunk, failure),
+                    new ConvertRows(runtime, columns, converters, metaData, rows, size, mapped, mid, to, chunk, failure)
+                );
+                return;
+            }
+            if ( failure.get() != null ) return;
+
+            final ThreadContext context = runtime.getCurrentContext(); // worker thread's context
+            final BufferedResultSet resultSet = new BufferedResultSet(rows, size, metaData);
+            try {
+                for ( int r = from; r < to; r++ ) {
+                    resultSet.absolute(r + 1);
+                    mapped[r] = RubyJdbcConnection.mapRow(context, runtime, columns, converters, resultSet);
+                }
+            }
+            catch (SQLException|RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+
+    }
+
+}
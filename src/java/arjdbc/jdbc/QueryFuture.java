@@ -0,0 +1,245 @@
+package arjdbc.jdbc;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jruby.Ruby;
+import org.jruby.RubyClass;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.RubyThread;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.SafePropertyAccessor;
+
+/**
+ * The (future) result of a query executed asynchronously on a (bounded) shared
+ * executor, using a connection of its own (not the one of the calling thread).
+ *
+ * With <code>-Darjdbc.async.executor=virtual</code> (on Java 21+) every query
+ * runs on a virtual thread instead of a (fixed size) pool thread, the number of
+ * concurrently executing queries is still bounded (by the pool size) using a
+ * semaphore. On older Java versions the pool is used.
+ *
+ * Mapping of the result is completed on the thread asking for the value, as
+ * that might use the (not thread-safe) adapter the connection belongs to.
+ *
+ * @see RubyJdbcConnection#execute_query_async(ThreadContext, IRubyObject)
+ */
+public class QueryFuture extends RubyObject {
+
+    static RubyClass createQueryFutureClass(Ruby runtime, RubyClass jdbcConnection) {
+        RubyClass rubyClass = jdbcConnection.defineClassUnder("Future", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        rubyClass.defineAnnotatedMethods(QueryFuture.class);
+        return rubyClass;
+    }
+
+    static RubyClass getQueryFuture(final Ruby runtime) {
+        return RubyJdbcConnection.getJdbcConnection(runtime).getClass("Future");
+    }
+
+    private static final int POOL_SIZE = SafePropertyAccessor.getInt("arjdbc.async.pool_size",
+        Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final boolean VIRTUAL_THREADS =
+        "virtual".equalsIgnoreCase(SafePropertyAccessor.getProperty("arjdbc.async.executor"));
+
+    private static volatile ExecutorService executor;
+    private static Semaphore permits; // only used with virtual threads
+
+    private static ExecutorService executor() {
+        ExecutorService executor = QueryFuture.executor;
+        if ( executor == null ) {
+            synchronized (QueryFuture.class) {
+                executor = QueryFuture.executor;
+                if ( executor == null ) {
+                    executor = VIRTUAL_THREADS ? newVirtualThreadExecutor() : null;
+                    if ( executor != null ) {
+                        permits = new Semaphore(POOL_SIZE);
+                    }
+                    else {
+                        executor = newThreadPoolExecutor();
+                    }
+                    QueryFuture.executor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ThreadPoolExecutor newThreadPoolExecutor() {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(POOL_SIZE, POOL_SIZE, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(), runnable -> {
+                final Thread thread = new Thread(runnable, "arjdbc-async-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() - Java 21+ (we compile against Java 8)
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException|RuntimeException e) {
+            RubyJdbcConnection.debugMessage(null, "virtual threads not available (using a thread pool): ", e);
+            return null;
+        }
+    }
+
+    interface Query {
+        IRubyObject execute(QueryFuture future) throws SQLException, InterruptedException;
+    }
+
+    private final RubyJdbcConnection connection;
+    private final FutureTask<IRubyObject> task;
+    private volatile Statement statement;
+    private IRubyObject result; // completed on the awaiting thread, guarded by this
+
+    private QueryFuture(final Ruby runtime, final RubyJdbcConnection connection, final Query query) {
+        super(runtime, getQueryFuture(runtime));
+        this.connection = connection;
+        this.task = new FutureTask<>(() -> query.execute(this));
+    }
+
+    static QueryFuture submit(final Ruby runtime, final RubyJdbcConnection connection, final Query query) {
+        final QueryFuture future = new QueryFuture(runtime, connection, query);
+        final ExecutorService executor = executor();
+        final Semaphore permits = QueryFuture.permits;
+        if ( permits == null ) {
+            executor.execute(future.task);
+        }
+        else { // a virtual thread per query, parks while waiting for a permit
+            executor.execute(() -> {
+                permits.acquireUninterruptibly();
+                try { future.task.run(); }
+                finally { permits.release(); }
+            });
+        }
+        return future;
+    }
+
+    /**
+     * @param statement the statement being executed (to be cancelled)
+     */
+    void setStatement(final Statement statement) {
+        this.statement = statement;
+        if ( task.isCancelled() ) cancelStatement(); // cancelled before executing
+    }
+
+    /**
+     * Waits for the query to complete.
+     * @param context
+     * @return the query's result
+     */
+    @JRubyMethod(name = "value")
+    public IRubyObject value(final ThreadContext context) {
+        return await(context, -1);
+    }
+
+    /**
+     * @param context
+     * @param timeout (in seconds) to wait for the result
+     * @return the query's result, nil if not done in time
+     */
+    @JRubyMethod(name = "value")
+    public IRubyObject value(final ThreadContext context, final IRubyObject timeout) {
+        if ( timeout.isNil() ) return await(context, -1);
+        return await(context, (long) (RubyNumeric.num2dbl(timeout) * 1000));
+    }
+
+    private IRubyObject await(final ThreadContext context, final long timeout) {
+        try {
+            return context.getThread().executeTask(context, task, new RubyThread.Task<FutureTask<IRubyObject>, IRubyObject>() {
+
+                public IRubyObject run(final ThreadContext context, final FutureTask<IRubyObject> task) throws InterruptedException {
+                    try {
+                        return complete(context, timeout < 0 ? task.get() : task.get(timeout, TimeUnit.MILLISECONDS));
+                    }
+                    catch (TimeoutException e) {
+                        return context.nil;
+                    }
+                    catch (CancellationException e) {
+                        throw context.runtime.newRaiseException(RubyJdbcConnection.getJDBCError(context.runtime), "query cancelled");
+                    }
+                    catch (ExecutionException e) {
+                        throw connection.wrapException(context, e.getCause());
+                    }
+                }
+
+                public void wakeup(final RubyThread thread, final FutureTask<IRubyObject> task) {
+                    thread.getNativeThread().interrupt(); // stop waiting (does not cancel the query)
+                }
+
+            });
+        }
+        catch (InterruptedException e) {
+            context.pollThreadEvents(); // likely a Thread#raise or kill
+            throw context.runtime.newThreadError("interrupted while waiting for query");
+        }
+    }
+
+    // what uses the adapter (e.g. resolving column types) happens on the awaiting thread
+    private synchronized IRubyObject complete(final ThreadContext context, final IRubyObject value) {
+        if ( result == null ) {
+            try {
+                result = connection.completeAsyncQueryResult(context, value);
+            }
+            catch (SQLException e) {
+                throw connection.wrapException(context, e);
+            }
+        }
+        return result;
+    }
+
+    @JRubyMethod(name = "done?")
+    public IRubyObject done_p(final ThreadContext context) {
+        return context.runtime.newBoolean(task.isDone());
+    }
+
+    @JRubyMethod(name = "cancelled?")
+    public IRubyObject cancelled_p(final ThreadContext context) {
+        return context.runtime.newBoolean(task.isCancelled());
+    }
+
+    /**
+     * Cancels the query, a running statement gets cancelled as well.
+     * @param context
+     * @return true if cancelled (false if already done)
+     */
+    @JRubyMethod(name = "cancel")
+    public IRubyObject cancel(final ThreadContext context) {
+        final boolean cancelled = task.cancel(false);
+        if ( cancelled ) cancelStatement();
+        return context.runtime.newBoolean(cancelled);
+    }
+
+    void cancelStatement() {
+        final Statement statement = this.statement;
+        if ( statement != null ) {
+            try { statement.cancel(); }
+            catch (SQLException|RuntimeException e) {
+                RubyJdbcConnection.debugMessage(getRuntime(), "failed to cancel statement: ", e);
+            }
+        }
+    }
+
+    boolean isCancelled() { return task.isCancelled(); }
+
+}
@@ -0,0 +1,410 @@
+package arjdbc.jdbc;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.RubyBasicObject;
+import org.jruby.RubyBignum;
+import org.jruby.RubyBoolean;
+import org.jruby.RubyClass;
+import org.jruby.RubyFixnum;
+import org.jruby.RubyFloat;
+import org.jruby.RubyHash;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyString;
+import org.jruby.RubySymbol;
+import org.jruby.RubyTime;
+import org.jruby.ext.bigdecimal.RubyBigDecimal;
+import org.jruby.ext.date.RubyDate;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.SafePropertyAccessor;
+
+/**
+ * A (read-through) cache of query results shared by all connections (of a
+ * runtime), keyed by the (normalized) SQL and bind values. Connections opt-in
+ * using the <code>result_cache_ttl_ms</code> config option.
+ *
+ * Entries are invalidated by writes: every table has a generation counter that
+ * gets incremented when a statement (executed by any connection) writes to it,
+ * an entry is only valid as long as the generations of the tables it read from
+ * did not change. Statements whose writes can not be determined (DDL, CALL)
+ * invalidate all entries (of the same database). Changes made outside of the
+ * process are not seen, thus entries also expire after their TTL.
+ *
+ * The cache is bounded (LRU) using <code>-Darjdbc.result_cache.size</code>.
+ *
+ * @see SqlTableNames
+ * @see RubyJdbcConnection#result_cache_ttl_ms(ThreadContext)
+ */
+final class QueryResultCache {
+
+    static final int DEFAULT_SIZE = 1000;
+
+    private static final int SIZE = SafePropertyAccessor.getInt("arjdbc.result_cache.size", DEFAULT_SIZE);
+
+    private static final String INSTANCE_VAR = "__arjdbc_result_cache";
+
+    private static final int PARSED_LIMIT = 4 * Math.max(SIZE, 256);
+
+    private static final Object NULL = new Object() {
+        @Override
+        public String toString() { return "NULL"; }
+    };
+
+    /**
+     * @param runtime
+     * @return the runtime's cache (created if not yet) or null if disabled
+     */
+    static QueryResultCache getInstance(final Ruby runtime) {
+        if ( SIZE <= 0 ) return null;
+        final RubyClass JdbcConnection = RubyJdbcConnection.getJdbcConnection(runtime);
+        QueryResultCache cache = (QueryResultCache) JdbcConnection.getInternalVariable(INSTANCE_VAR);
+        if ( cache == null ) {
+            synchronized (JdbcConnection) {
+                cache = (QueryResultCache) JdbcConnection.getInternalVariable(INSTANCE_VAR);
+                if ( cache == null ) {
+                    JdbcConnection.setInternalVariable(INSTANCE_VAR, cache = new QueryResultCache(SIZE));
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @param runtime
+     * @return the runtime's cache or null if not used (by any connection)
+     */
+    static QueryResultCache peek(final Ruby runtime) {
+        return (QueryResultCache) RubyJdbcConnection.getJdbcConnection(runtime).getInternalVariable(INSTANCE_VAR);
+    }
+
+    private final ConcurrentHashMap<String, SqlTableNames> parsed = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, SqlTableNames> parsedEscapes = new ConcurrentHashMap<>(); // MySQL
+    private final ConcurrentHashMap<String, Generations> scopes = new ConcurrentHashMap<>(4);
+    private final Entries entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    QueryResultCache(final int maxSize) {
+        this.entries = new Entries(maxSize);
+    }
+
+    SqlTableNames parse(final String sql, final boolean backslashEscapes) {
+        final ConcurrentHashMap<String, SqlTableNames> parsed = backslashEscapes ? this.parsedEscapes : this.parsed;
+        SqlTableNames tables = parsed.get(sql);
+        if ( tables == null ) {
+            if ( parsed.size() >= PARSED_LIMIT ) parsed.clear(); // mostly static SQL
+            parsed.put(sql, tables = SqlTableNames.parse(sql, backslashEscapes));
+        }
+        return tables;
+    }
+
+    /**
+     * Prepares a cache lookup, capturing the current generations of read tables.
+     * @param context
+     * @param scope the database (URL and user) queried
+     * @param sql
+     * @param binds (might be null)
+     * @param backslashEscapes whether the database treats backslashes in literals as escapes
+     * @return a lookup or null if the query is not cacheable
+     */
+    Lookup lookup(final ThreadContext context, final String scope, final String sql, final RubyArray binds,
+        final boolean backslashEscapes) {
+        final SqlTableNames tables = parse(sql, backslashEscapes);
+        if ( ! tables.cacheable ) return null;
+
+        final Object[] values;
+        if ( binds == null || binds.isEmpty() ) values = null;
+        else {
+            values = new Object[binds.getLength()];
+            for ( int i = 0; i < values.length; i++ ) {
+                final IRubyObject attribute = binds.eltInternal(i);
+                final IRubyObject value = attribute.respondsTo("value_for_database") ?
+                        attribute.callMethod(context, "value_for_database") : attribute;
+                if ( ( values[i] = keyValue(context, value) ) == null ) return null; // not cacheable
+            }
+        }
+
+        final Generations generations = generations(scope);
+        final String[] readTables = tables.readTables;
+        final long[] snapshot = new long[readTables.length + 1];
+        snapshot[0] = generations.global.get();
+        for ( int i = 0; i < readTables.length; i++ ) {
+            snapshot[i + 1] = generations.table(readTables[i]).get();
+        }
+        return new Lookup(new Key(scope, tables.sql, values), generations, readTables, snapshot);
+    }
+
+    /**
+     * Invalidates results (of the database) the statement might have changed.
+     * @param scope
+     * @param sql an executed statement (reads are ignored)
+     * @param backslashEscapes whether the database treats backslashes in literals as escapes
+     */
+    void invalidate(final String scope, final String sql, final boolean backslashEscapes) {
+        invalidate(scope, parse(sql, backslashEscapes));
+    }
+
+    void invalidate(final String scope, final SqlTableNames tables) {
+        final String[] writeTables = tables.writeTables;
+        if ( writeTables != null && writeTables.length == 0 ) return; // a read
+        final Generations generations = generations(scope);
+        if ( writeTables == null ) {
+            generations.global.incrementAndGet();
+        }
+        else {
+            for ( final String table : writeTables ) generations.table(table).incrementAndGet();
+        }
+        invalidations.incrementAndGet();
+    }
+
+    void clear() {
+        synchronized (entries) { entries.clear(); }
+        for ( final Generations generations : scopes.values() ) generations.global.incrementAndGet();
+    }
+
+    IRubyObject stats(final ThreadContext context) {
+        final Ruby runtime = context.runtime;
+        final int size;
+        synchronized (entries) { size = entries.size(); }
+        final RubyHash stats = RubyHash.newHash(runtime);
+        stats.op_aset(context, runtime.newSymbol("hits"), runtime.newFixnum(hits.get()));
+        stats.op_aset(context, runtime.newSymbol("misses"), runtime.newFixnum(misses.get()));
+        stats.op_aset(context, runtime.newSymbol("invalidations"), runtime.newFixnum(invalidations.get()));
+        stats.op_aset(context, runtime.newSymbol("size"), runtime.newFixnum(size));
+        return stats;
+    }
+
+    private Generations generations(final String scope) {
+        Generations generations = scopes.get(scope);
+        if ( generations == null ) {
+            final Generations existing = scopes.putIfAbsent(scope, generations = new Generations());
+            if ( existing != null ) generations = existing;
+        }
+        return generations;
+    }
+
+    // bind value (for database) as a key (Java) value, null if not supported
+    private static Object keyValue(final ThreadContext context, final IRubyObject value) {
+        if ( value.isNil() ) return NULL;
+        if ( value instanceof RubyString ) {
+            return ((RubyString) value).decodeString();
+        }
+        if ( value instanceof RubyFixnum ) return ((RubyFixnum) value).getLongValue();
+        if ( value instanceof RubyBignum ) return ((RubyBignum) value).getBigIntegerValue();
+        if ( value instanceof RubyFloat ) return ((RubyFloat) value).getDoubleValue();
+        if ( value instanceof RubyBoolean ) return value.isTrue();
+        if ( value instanceof RubyBigDecimal ) return ((RubyBigDecimal) value).getValue();
+        if ( value instanceof RubySymbol ) return value.toString();
+        if ( value instanceof RubyTime ) { // exact (inspect leaves out fractional seconds)
+            final RubyTime time = (RubyTime) value;
+            final long millis = time.getDateTime().getMillis();
+            final long nanos = Math.floorMod(millis, 1000L) * 1_000_000L + time.getNSec();
+            final int offset = time.getDateTime().getZone().getOffset(millis);
+            return Arrays.asList(time.getMetaClass().getRealClass().getName(),
+                Math.floorDiv(millis, 1000L), nanos, offset);
+        }
+        if ( value instanceof RubyDate ) { // incl. DateTime (day fraction and offset are exact rationals)
+            final String className = value.getMetaClass().getRealClass().getName();
+            final long day = RubyNumeric.num2long(value.callMethod(context, "jd"));
+            if ( "Date".equals(className) ) return Arrays.asList(className, day);
+            return Arrays.asList(className, day,
+                value.callMethod(context, "day_fraction").inspect().toString(),
+                value.callMethod(context, "offset").inspect().toString());
+        }
+        return null;
+    }
+
+    /**
+     * Copies a result, unlike <code>ActiveRecord::Result#dup</code> rows (and
+     * their values) are not shared thus callers might freely modify them.
+     * @param context
+     * @param result
+     * @return result copy, null if a value can not be copied (e.g. a LOB handle)
+     */
+    static IRubyObject copyResult(final ThreadContext context, final IRubyObject result) {
+        final IRubyObject copy = result.callMethod(context, "dup");
+        if ( ! ( copy instanceof RubyBasicObject ) ) return copy;
+        final RubyBasicObject object = (RubyBasicObject) copy;
+        final IRubyObject rows = copy.callMethod(context, "rows"); // (lazy) columnar results build their rows
+        if ( rows instanceof RubyArray ) {
+            final Ruby runtime = context.runtime;
+            final RubyArray source = (RubyArray) rows;
+            final IRubyObject[] copies = new IRubyObject[source.getLength()];
+            for ( int i = 0; i < copies.length; i++ ) {
+                if ( ( copies[i] = copyValue(context, source.eltInternal(i)) ) == null ) return null;
+            }
+            object.setInstanceVariable("@rows", RubyArray.newArrayMayCopy(runtime, copies));
+            object.setInstanceVariable("@hash_rows", context.nil);
+        }
+        return copy;
+    }
+
+    // null for values not known to be (safely) copied or shared
+    private static IRubyObject copyValue(final ThreadContext context, final IRubyObject value) {
+        if ( value instanceof RubyArray ) {
+            final RubyArray array = (RubyArray) value;
+            final IRubyObject[] copies = new IRubyObject[array.getLength()];
+            for ( int i = 0; i < copies.length; i++ ) {
+                if ( ( copies[i] = copyValue(context, array.eltInternal(i)) ) == null ) return null;
+            }
+            return RubyArray.newArrayMayCopy(context.runtime, copies);
+        }
+        if ( value instanceof RubyString ) return ((RubyString) value).strDup(context.runtime);
+        if ( value.isNil() || value instanceof RubyFixnum || value instanceof RubyBignum ||
+             value instanceof RubyFloat || value instanceof RubyBoolean || value instanceof RubySymbol ||
+             value instanceof RubyBigDecimal || value instanceof RubyDate ) { // incl. DateTime
+            return value; // immutable
+        }
+        if ( value instanceof RubyTime ) return ((RubyTime) value).dup(); // Time#localtime mutates
+        return null; // e.g. LOB handles (bound to a result set) or Java objects
+    }
+
+    /**
+     * Table generations of a single database.
+     */
+    private static final class Generations {
+
+        final AtomicLong global = new AtomicLong();
+        final ConcurrentHashMap<String, AtomicLong> tables = new ConcurrentHashMap<>();
+
+        AtomicLong table(final String name) {
+            final String table = SqlTableNames.tableKey(name);
+            AtomicLong generation = tables.get(table);
+            if ( generation == null ) {
+                final AtomicLong existing = tables.putIfAbsent(table, generation = new AtomicLong());
+                if ( existing != null ) generation = existing;
+            }
+            return generation;
+        }
+
+    }
+
+    final class Lookup {
+
+        private final Key key;
+        private final Generations generations;
+        private final String[] tables;
+        private final long[] snapshot;
+
+        Lookup(final Key key, final Generations generations, final String[] tables, final long[] snapshot) {
+            this.key = key;
+            this.generations = generations;
+            this.tables = tables;
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * @param context
+         * @return a (copy of the) cached result (null if none or no longer valid)
+         */
+        IRubyObject get(final ThreadContext context) {
+            final Entry entry;
+            synchronized (entries) { entry = entries.get(key); }
+            if ( entry != null ) {
+                if ( entry.expires - System.nanoTime() > 0 && entry.isValid(this) ) {
+                    hits.incrementAndGet();
+                    return copyResult(context, entry.result);
+                }
+                synchronized (entries) { entries.remove(key, entry); }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+
+        /**
+         * @param context
+         * @param result the query's result (a copy gets cached)
+         * @param ttl in milliseconds
+         */
+        void put(final ThreadContext context, final IRubyObject result, final long ttl) {
+            if ( ! isValid(snapshot) ) return; // tables written while querying
+            final IRubyObject copy = copyResult(context, result);
+            if ( copy == null ) return; // not cacheable (e.g. lazy LOB handles)
+            final Entry entry = new Entry(copy, snapshot, System.nanoTime() + ttl * 1_000_000L);
+            synchronized (entries) { entries.put(key, entry); }
+        }
+
+        // whether none of the (read) tables got written since the snapshot
+        boolean isValid(final long[] snapshot) {
+            if ( snapshot[0] != generations.global.get() ) return false;
+            for ( int i = 0; i < tables.length; i++ ) {
+                if ( snapshot[i + 1] != generations.table(tables[i]).get() ) return false;
+            }
+            return true;
+        }
+
+    }
+
+    private static final class Key {
+
+        private final String scope;
+        private final String sql;
+        private final Object[] binds;
+        private final int hash;
+
+        Key(final String scope, final String sql, final Object[] binds) {
+            this.scope = scope;
+            this.sql = sql;
+            this.binds = binds;
+            this.hash = 31 * ( 31 * scope.hashCode() + sql.hashCode() ) + Arrays.hashCode(binds);
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if ( this == obj ) return true;
+            if ( ! ( obj instanceof Key ) ) return false;
+            final Key that = (Key) obj;
+            return hash == that.hash && sql.equals(that.sql) && scope.equals(that.scope) &&
+                   Arrays.equals(binds, that.binds);
+        }
+
+    }
+
+    private static final class Entry {
+
+        final IRubyObject result;
+        final long[] snapshot; // global generation followed by (read) table generations
+        final long expires; // System.nanoTime()
+
+        Entry(final IRubyObject result, final long[] snapshot, final long expires) {
+            this.result = result;
+            this.snapshot = snapshot;
+            this.expires = expires;
+        }
+
+        boolean isValid(final Lookup lookup) {
+            return lookup.isValid(snapshot);
+        }
+
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Entries extends LinkedHashMap<Key, Entry> {
+
+        private final int limit;
+
+        Entries(final int limit) {
+            super(64, 0.75f, true); // access-order
+            this.limit = limit;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+            return size() > limit;
+        }
+
+    }
+
+}
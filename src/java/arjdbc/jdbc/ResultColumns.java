@@ -0,0 +1,95 @@
+package arjdbc.jdbc;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import org.jruby.RubyString;
+import org.jruby.runtime.builtin.IRubyObject;
+
+import arjdbc.jdbc.RubyJdbcConnection.ColumnData;
+
+/**
+ * Result (column) metadata resolved for a prepared statement.
+ * For statements cached on the Ruby side we resolve columns once and reuse
+ * them for as long as the statement is alive, instead of going through the
+ * result set's metadata (and converting column names) on every execution.
+ *
+ * Resolved columns are only reused while the result has the same shape (column
+ * labels and types), a cached statement's result might change after DDL e.g.
+ * a renamed column or a changed column type. Comparing them only reads the
+ * (already loaded) result metadata, resolved columns are also dropped whenever
+ * mapping a result (with them) fails.
+ *
+ * @see RubyJdbcConnection#execute_prepared_query(org.jruby.runtime.ThreadContext, IRubyObject, IRubyObject, IRubyObject)
+ */
+public final class ResultColumns {
+
+    // resolved by RubyJdbcConnection#mapQueryResult
+    ColumnData[] columns;
+    // resolved by JdbcResult (for adapters using a "raw" result)
+    RubyString[] columnNames;
+    int[] columnTypes;
+    IRubyObject columnTypeMap;
+
+    // the (metadata) shape columns were resolved from
+    private String[] labels;
+    private int[] types;
+
+    ResultColumns() { /* cached per statement */ }
+
+    ColumnData[] getColumns(final ResultSetMetaData metaData) throws SQLException {
+        return columns != null && matches(metaData) ? columns : null;
+    }
+
+    void setColumns(final ColumnData[] columns, final ResultSetMetaData metaData) throws SQLException {
+        if ( ! matches(metaData) ) reset(metaData);
+        this.columns = columns;
+    }
+
+    boolean hasColumnNames(final ResultSetMetaData metaData) throws SQLException {
+        return columnNames != null && matches(metaData);
+    }
+
+    void setColumnNames(final RubyString[] columnNames, final int[] columnTypes,
+        final ResultSetMetaData metaData) throws SQLException {
+        if ( ! matches(metaData) ) reset(metaData);
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columnTypeMap = null;
+    }
+
+    /**
+     * Drops resolved columns, e.g. when converting values using them failed.
+     */
+    void invalidate() {
+        reset(null, null);
+    }
+
+    private boolean matches(final ResultSetMetaData metaData) throws SQLException {
+        final String[] labels = this.labels;
+        if ( labels == null || labels.length != metaData.getColumnCount() ) return false;
+        for ( int i = 0; i < labels.length; i++ ) { // metadata is one-based
+            if ( types[i] != metaData.getColumnType(i + 1) ) return false;
+            if ( ! labels[i].equals(metaData.getColumnLabel(i + 1)) ) return false;
+        }
+        return true;
+    }
+
+    private void reset(final ResultSetMetaData metaData) throws SQLException {
+        final int columnCount = metaData.getColumnCount();
+        final String[] labels = new String[columnCount];
+        final int[] types = new int[columnCount];
+        for ( int i = 0; i < columnCount; i++ ) {
+            labels[i] = metaData.getColumnLabel(i + 1);
+            types[i] = metaData.getColumnType(i + 1);
+        }
+        reset(labels, types);
+    }
+
+    private void reset(final String[] labels, final int[] types) {
+        this.labels = labels; this.types = types;
+        this.columns = null;
+        this.columnNames = null; this.columnTypes = null; this.columnTypeMap = null;
+    }
+
+}
@@ -0,0 +1,188 @@
+package arjdbc.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.jruby.Ruby;
+import org.jruby.RubyArray;
+import org.jruby.RubyClass;
+import org.jruby.RubyNumeric;
+import org.jruby.RubyObject;
+import org.jruby.anno.JRubyMethod;
+import org.jruby.exceptions.JumpException;
+import org.jruby.runtime.Block;
+import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+
+import arjdbc.jdbc.RubyJdbcConnection.ColumnData;
+
+/**
+ * A (forward only) cursor over an open result set, rows are fetched (and
+ * converted) in chunks thus a query's result does not need to fit in memory.
+ * The cursor owns the statement, it gets closed on {@link #close(ThreadContext)}
+ * or once all rows have been read. A transaction started for the cursor is
+ * committed on (normal) close and rolled back when closing due an error.
+ *
+ * @see RubyJdbcConnection#execute_cursor(ThreadContext, IRubyObject[], Block)
+ */
+public class ResultCursor extends RubyObject {
+
+    static RubyClass createResultCursorClass(Ruby runtime, RubyClass jdbcConnection) {
+        RubyClass rubyClass = jdbcConnection.defineClassUnder("Cursor", runtime.getObject(), ObjectAllocator.NOT_ALLOCATABLE_ALLOCATOR);
+        rubyClass.defineAnnotatedMethods(ResultCursor.class);
+        return rubyClass;
+    }
+
+    static RubyClass getResultCursor(final Ruby runtime) {
+        return RubyJdbcConnection.getJdbcConnection(runtime).getClass("Cursor");
+    }
+
+    private final RubyJdbcConnection connection;
+    private final Connection jdbcConnection;
+    private final Statement statement;
+    private final ResultSet resultSet;
+    private final ColumnData[] columns;
+    private final ColumnConverter[] converters;
+    private final int chunkSize;
+    private final boolean resetAutoCommit;
+
+    private boolean closed;
+
+    ResultCursor(final ThreadContext context, final RubyJdbcConnection connection,
+        final Connection jdbcConnection, final Statement statement, final ResultSet resultSet,
+        final int chunkSize, final boolean resetAutoCommit) throws SQLException {
+        super(context.runtime, getResultCursor(context.runtime));
+        this.connection = connection;
+        this.jdbcConnection = jdbcConnection;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.chunkSize = chunkSize;
+        this.resetAutoCommit = resetAutoCommit;
+
+        this.columns = connection.extractColumns(context, jdbcConnection, resultSet, false);
+        this.converters = connection.columnConverters(context, resultSet, columns);
+    }
+
+    @JRubyMethod
+    public IRubyObject columns(final ThreadContext context) {
+        final IRubyObject[] names = new IRubyObject[columns.length];
+        for (int i = 0; i < columns.length; i++) names[i] = columns[i].getName(context);
+        return RubyArray.newArrayNoCopy(context.runtime, names);
+    }
+
+    /**
+     * @param context
+     * @return the next chunk of rows (up to the cursor's chunk size) as an
+     * <code>ActiveRecord::Result</code> or nil if there are no more rows
+     */
+    @JRubyMethod
+    public IRubyObject fetch(final ThreadContext context) {
+        return fetch(context, chunkSize);
+    }
+
+    /**
+     * @param context
+     * @param maxRows
+     * @return the next chunk of rows (up to max rows) as an
+     * <code>ActiveRecord::Result</code> or nil if there are no more rows
+     */
+    @JRubyMethod
+    public IRubyObject fetch(final ThreadContext context, final IRubyObject maxRows) {
+        final int max = RubyNumeric.fix2int(maxRows);
+        if ( max <= 0 ) throw context.runtime.newArgumentError("max rows must be positive (got " + max + ")");
+        return fetch(context, max);
+    }
+
+    private IRubyObject fetch(final ThreadContext context, final int maxRows) {
+        if ( closed ) return context.nil;
+        final Ruby runtime = context.runtime;
+        try {
+            final RubyArray rows = RubyArray.newArray(runtime, maxRows);
+            while ( rows.size() < maxRows ) {
+                if ( ! resultSet.next() ) {
+                    doClose(true);
+                    break;
+                }
+                rows.append(RubyJdbcConnection.mapRow(context, runtime, columns, converters, resultSet));
+            }
+            if ( rows.isEmpty() ) return context.nil;
+            return RubyJdbcConnection.newResult(context, columns, rows);
+        }
+        catch (SQLException e) {
+            abort();
+            throw connection.wrapException(context, e);
+        }
+    }
+
+    /**
+     * Yields every (remaining) chunk of rows, closes the cursor when done.
+     * @param context
+     * @param block
+     * @return nil
+     */
+    @JRubyMethod(name = "each_chunk")
+    public IRubyObject each_chunk(final ThreadContext context, final Block block) {
+        try {
+            IRubyObject chunk;
+            while ( ( chunk = fetch(context, chunkSize) ) != context.nil ) {
+                block.yield(context, chunk);
+            }
+        }
+        catch (JumpException e) { // break (e.g. from Enumerable#first) completes normally
+            close(context); throw e;
+        }
+        catch (RuntimeException|Error e) {
+            abort(); throw e; // do not commit what the block did before raising
+        }
+        close(context);
+        return context.nil;
+    }
+
+    @JRubyMethod(name = "closed?")
+    public IRubyObject closed_p(final ThreadContext context) {
+        return context.runtime.newBoolean(closed);
+    }
+
+    @JRubyMethod
+    public IRubyObject close(final ThreadContext context) {
+        if ( closed ) return context.fals;
+        try {
+            doClose(true);
+        }
+        catch (SQLException e) {
+            throw connection.wrapException(context, e);
+        }
+        return context.tru;
+    }
+
+    /**
+     * Closes the cursor due an error, rolling back a transaction started for it.
+     * Failing to do so is not reported, the original error is what matters.
+     */
+    void abort() {
+        try {
+            doClose(false);
+        }
+        catch (SQLException ignore) { /* original exception is what matters */ }
+    }
+
+    private void doClose(final boolean commit) throws SQLException {
+        if ( closed ) return;
+        closed = true;
+        RubyJdbcConnection.close(resultSet);
+        RubyJdbcConnection.close(statement);
+        if ( resetAutoCommit ) { // we've started a transaction for the cursor
+            try {
+                if ( commit ) jdbcConnection.commit();
+                else jdbcConnection.rollback();
+            }
+            finally {
+                jdbcConnection.setAutoCommit(true);
+            }
+        }
+    }
+
+}
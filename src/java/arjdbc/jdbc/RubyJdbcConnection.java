@@ -34,6 +34,9 @@ import java.io.StringReader;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.Array;
+import java.sql.BatchUpdateException;
+import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.PreparedStatement;
@@ -51,8 +54,11 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -61,6 +67,9 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.WeakHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import arjdbc.util.StringHelper;
 import org.joda.time.DateTime;
@@ -81,13 +90,17 @@ import org.jruby.RubyNumeric;
 import org.jruby.RubyObject;
 import org.jruby.RubyString;
 import org.jruby.RubySymbol;
+import org.jruby.RubyThread;
 import org.jruby.RubyTime;
 import org.jruby.anno.JRubyMethod;
+import org.jruby.exceptions.JumpException;
 import org.jruby.exceptions.RaiseException;
 import org.jruby.ext.bigdecimal.RubyBigDecimal;
+import org.jruby.java.proxies.ArrayJavaProxy;
 import org.jruby.javasupport.JavaEmbedUtils;
 import org.jruby.javasupport.JavaUtil;
 import org.jruby.runtime.Block;
+import org.jruby.runtime.Helpers;
 import org.jruby.runtime.ObjectAllocator;
 import org.jruby.runtime.ThreadContext;
 import org.jruby.runtime.Visibility;
@@ -101,7 +114,9 @@ import org.jruby.util.SafePropertyAccessor;
 import org.jruby.util.TypeConverter;
 
 import arjdbc.util.DateTimeUtils;
+import arjdbc.util.DecimalHelper;
 import arjdbc.util.ObjectSupport;
+import arjdbc.util.RowHashKeys;
 import arjdbc.util.StringCache;
 
 import static arjdbc.jdbc.DataSourceConnectionFactory.*;
@@ -128,6 +143,26 @@ public class RubyJdbcConnection extends RubyObject {
     private boolean jndi; // final once set on initialize
     private boolean configureConnection = true; // final once initialized
     private int fetchSize = 0; // 0 = JDBC default
+    private boolean columnarResults; // lazy (column buffered) AR::Result
+    private boolean lazyLobs; // BLOB/CLOB values as (lazy) handles
+    private int dedupStrings; // 0 = disabled, otherwise (per column) dedup table size
+    private StatementCache statementCache; // (JDBC) prepared statements, see statement_limit
+    private int batchSize = DEFAULT_BATCH_SIZE; // see execute_batch
+    private DeferredWrites deferredWrites; // null unless deferred_writes enabled
+    private int statementTimeout; // (default) statement timeout in ms, 0 means none
+    private int statementTimeoutOverride = -1; // with_statement_timeout (block-scoped)
+    private volatile Statement activeStatement; // the (last) statement being executed
+    private volatile boolean statementCancelled;
+    private final Object cancelLock = new Object(); // guards cancelling vs. finishing a call
+    private long cancellableCalls; // (id) counter of cancellable calls
+    private long currentCancellableCall; // id of the call running, 0 if none
+    private boolean cancellableCall; // within a (non-nested) cancellable withConnection
+    private int parallelConversionThreshold = defaultParallelConversionThreshold; // 0 = disabled
+    private int resultCacheTtl; // (shared) query result cache TTL in ms, 0 = disabled
+    private String resultCacheScope; // database URL and user (lazy)
+    private List<String> resultCachePending; // writes (in a transaction) to invalidate on commit
+    // result metadata of (Ruby side) cached prepared statements
+    private final Map<Statement, ResultColumns> resultColumnsCache = Collections.synchronizedMap(new WeakHashMap<>());
 
     protected RubyJdbcConnection(Ruby runtime, RubyClass metaClass) {
         super(runtime, metaClass);
@@ -143,6 +178,10 @@ public class RubyJdbcConnection extends RubyObject {
         final RubyClass JdbcConnection = getConnectionAdapters(runtime).
             defineClassUnder("JdbcConnection", runtime.getObject(), ALLOCATOR);
         JdbcConnection.defineAnnotatedMethods(RubyJdbcConnection.class);
+        ColumnarResult.createColumnarResultClass(runtime, JdbcConnection);
+        ResultCursor.createResultCursorClass(runtime, JdbcConnection);
+        QueryFuture.createQueryFutureClass(runtime, JdbcConnection);
+        LobHandle.createLobHandleClass(runtime, JdbcConnection);
         return JdbcConnection;
     }
 
@@ -356,9 +395,11 @@ public class RubyJdbcConnection extends RubyObject {
         try {
             final Connection connection = getConnectionInternal(true);
             if ( ! connection.getAutoCommit() ) {
+                flushDeferredWrites(context, connection); // fails before committing
                 try {
                     connection.commit();
                     resetSavepoints(context); // if any
+                    invalidateResultCachePending(context, connection);
                     return context.runtime.newBoolean(true);
                 }
                 finally {
@@ -375,6 +416,8 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "rollback")
     public IRubyObject rollback(final ThreadContext context) {
         try {
+            discardDeferredWrites();
+            resultCachePending = null; // already invalidated (when written)
             final Connection connection = getConnectionInternal(true);
             if ( ! connection.getAutoCommit() ) {
                 try {
@@ -409,6 +452,7 @@ public class RubyJdbcConnection extends RubyObject {
     public IRubyObject create_savepoint(final ThreadContext context, IRubyObject name) {
         try {
             final Connection connection = getConnectionInternal(true);
+            flushDeferredWrites(context, connection);
             connection.setAutoCommit(false);
 
             final Savepoint savepoint ;
@@ -442,6 +486,7 @@ public class RubyJdbcConnection extends RubyObject {
             if ( savepoint == null ) {
                 throw context.runtime.newRuntimeError("could not rollback savepoint: '" + name + "' (not set)");
             }
+            discardDeferredWrites(); // queued after the (last) savepoint
             connection.rollback(savepoint);
             return context.nil;
         }
@@ -465,6 +510,7 @@ public class RubyJdbcConnection extends RubyObject {
             }
 
             final Connection connection = getConnectionInternal(true);
+            flushDeferredWrites(context, connection);
             connection.releaseSavepoint((Savepoint) savepoint);
             return context.nil;
         }
@@ -553,6 +599,227 @@ public class RubyJdbcConnection extends RubyObject {
         if (jdbcFetchSize != context.nil) {
             this.fetchSize = RubyNumeric.fix2int(jdbcFetchSize);
         }
+
+        this.columnarResults = getConfigValue(context, "columnar_results").isTrue();
+        this.lazyLobs = getConfigValue(context, "lazy_lobs").isTrue();
+        this.dedupStrings = dedupStringsSize(getConfigValue(context, "dedup_strings"));
+
+        IRubyObject bufferSize = getConfigValue(context, "stream_buffer_size");
+        if (bufferSize != context.nil) {
+            final int size = RubyNumeric.fix2int(bufferSize);
+            if (size <= 0) throw context.runtime.newArgumentError("stream_buffer_size must be positive (got " + size + ")");
+            this.bufferSize = size;
+        }
+
+        IRubyObject parallelThreshold = getConfigValue(context, "parallel_conversion_threshold");
+        if (parallelThreshold != context.nil) {
+            this.parallelConversionThreshold = RubyNumeric.fix2int(parallelThreshold);
+        }
+
+        if (getConfigValue(context, "deferred_writes").isTrue()) {
+            this.deferredWrites = new DeferredWrites();
+        }
+
+        IRubyObject statementTimeoutMs = getConfigValue(context, "statement_timeout_ms");
+        if (statementTimeoutMs != context.nil) {
+            this.statementTimeout = Math.max(0, RubyNumeric.fix2int(statementTimeoutMs));
+        }
+
+        IRubyObject resultCacheTtlMs = getConfigValue(context, "result_cache_ttl_ms");
+        if (resultCacheTtlMs != context.nil) {
+            this.resultCacheTtl = Math.max(0, RubyNumeric.fix2int(resultCacheTtlMs));
+        }
+
+        IRubyObject jdbcBatchSize = getConfigValue(context, "jdbc_batch_size");
+        if (jdbcBatchSize != context.nil) {
+            this.batchSize = RubyNumeric.fix2int(jdbcBatchSize);
+        }
+
+        // opt-in, statements prepared (with binds) by AR are already cached (Ruby side) in a StatementPool
+        int statementLimit = 0;
+        if (getConfigValue(context, "jdbc_statement_cache").isTrue()) {
+            IRubyObject limit = getConfigValue(context, "statement_limit");
+            statementLimit = limit == context.nil ? DEFAULT_STATEMENT_LIMIT : Math.max(0, RubyNumeric.fix2int(limit));
+        }
+        this.statementCache = new StatementCache(statementLimit);
+    }
+
+    @JRubyMethod(name = "columnar_results?")
+    public IRubyObject columnar_results_p(final ThreadContext context) {
+        return context.runtime.newBoolean(columnarResults);
+    }
+
+    @JRubyMethod(name = "columnar_results=")
+    public IRubyObject set_columnar_results(final ThreadContext context, final IRubyObject flag) {
+        this.columnarResults = flag.isTrue();
+        return flag;
+    }
+
+    /**
+     * With lazy LOBs BLOB/CLOB (and LONGVARBINARY) values are returned as
+     * <code>JdbcConnection::Lob</code> handles, read from the driver on access.
+     * Handles are only returned when in a transaction (or the driver keeps
+     * LOB values readable after the result set is closed).
+     * @param context
+     * @return whether lazy LOB handles are enabled
+     */
+    @JRubyMethod(name = "lazy_lobs?")
+    public IRubyObject lazy_lobs_p(final ThreadContext context) {
+        return context.runtime.newBoolean(lazyLobs);
+    }
+
+    @JRubyMethod(name = "lazy_lobs=")
+    public IRubyObject set_lazy_lobs(final ThreadContext context, final IRubyObject flag) {
+        this.lazyLobs = flag.isTrue();
+        return flag;
+    }
+
+    private static final int DEFAULT_DEDUP_STRINGS_SIZE = 256;
+
+    private static int dedupStringsSize(final IRubyObject value) {
+        if (value instanceof RubyNumeric) return Math.max(0, RubyNumeric.fix2int(value));
+        return value.isTrue() ? DEFAULT_DEDUP_STRINGS_SIZE : 0;
+    }
+
+    /**
+     * @param context
+     * @return the (per result column) size of the string dedup table, 0 if disabled
+     */
+    @JRubyMethod(name = "dedup_strings")
+    public IRubyObject dedup_strings(final ThreadContext context) {
+        return context.runtime.newFixnum(dedupStrings);
+    }
+
+    /**
+     * With string dedup repeated (CHAR/VARCHAR) values within a result share the
+     * same frozen string, set to true (default size) or the dedup table size.
+     * @param context
+     * @param value true, false or an (table size) integer
+     * @return value
+     */
+    @JRubyMethod(name = "dedup_strings=")
+    public IRubyObject set_dedup_strings(final ThreadContext context, final IRubyObject value) {
+        this.dedupStrings = dedupStringsSize(value);
+        return value;
+    }
+
+    private static final int DEFAULT_STATEMENT_LIMIT = 1000; // same as AR's default
+
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * @param context
+     * @return max number of (JDBC) prepared statements cached, 0 if disabled
+     */
+    @JRubyMethod(name = "statement_limit")
+    public IRubyObject statement_limit(final ThreadContext context) {
+        return context.runtime.newFixnum(getStatementCache().getLimit());
+    }
+
+    /**
+     * Prepared statements (executed with binds) are cached per connection, least
+     * recently used ones get closed once the limit is reached. Set to 0 to disable.
+     * Disabled unless the <code>jdbc_statement_cache</code> config option is set,
+     * the limit then defaults to the (AR) <code>statement_limit</code> config.
+     * @param context
+     * @param limit
+     * @return limit
+     */
+    @JRubyMethod(name = "statement_limit=")
+    public IRubyObject set_statement_limit(final ThreadContext context, final IRubyObject limit) {
+        getStatementCache().setLimit(limit.isNil() ? 0 : Math.max(0, RubyNumeric.fix2int(limit)));
+        return limit;
+    }
+
+    /**
+     * @param context
+     * @return statement cache counters e.g. <code>{ hits: 10, misses: 2, evictions: 0, size: 2 }</code>
+     */
+    @JRubyMethod(name = "statement_cache_stats")
+    public IRubyObject statement_cache_stats(final ThreadContext context) {
+        final Ruby runtime = context.runtime;
+        final StatementCache cache = getStatementCache();
+        final RubyHash stats = RubyHash.newHash(runtime);
+        synchronized (cache) {
+            stats.op_aset(context, runtime.newSymbol("hits"), runtime.newFixnum(cache.hits));
+            stats.op_aset(context, runtime.newSymbol("misses"), runtime.newFixnum(cache.misses));
+            stats.op_aset(context, runtime.newSymbol("evictions"), runtime.newFixnum(cache.evictions));
+            stats.op_aset(context, runtime.newSymbol("size"), runtime.newFixnum(cache.size()));
+        }
+        return stats;
+    }
+
+    /**
+     * Closes all (JDBC) prepared statements cached, and forgets resolved result metadata.
+     * @param context
+     * @return nil
+     */
+    @JRubyMethod(name = "clear_statement_cache")
+    public IRubyObject clear_statement_cache(final ThreadContext context) {
+        getStatementCache().clear();
+        resultColumnsCache.clear(); // e.g. after DDL (result shapes might change)
+        return context.nil;
+    }
+
+    private StatementCache getStatementCache() {
+        StatementCache cache = statementCache;
+        if ( cache == null ) { // not initialized (e.g. connection sub-class not calling super)
+            synchronized (this) {
+                if ( statementCache == null ) statementCache = new StatementCache(0);
+                cache = statementCache;
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Prepares a statement, a cached one is returned if available.
+     * @param connection
+     * @param sql
+     * @param generatedKeys whether the statement is to return generated keys
+     * @return a prepared statement, to be released once done using
+     * {@link #releaseCachedStatement(Connection, String, boolean, PreparedStatement, boolean)}
+     * @throws SQLException
+     */
+    protected PreparedStatement prepareCachedStatement(final Connection connection,
+        final String sql, final boolean generatedKeys) throws SQLException {
+        return applyStatementTimeout(getStatementCache().acquire(connection, sql, generatedKeys, fetchSize));
+    }
+
+    /**
+     * Returns a statement into the cache (or closes it).
+     * @param connection
+     * @param sql
+     * @param generatedKeys
+     * @param statement (might be null)
+     * @param failed whether execution failed, such statements are closed
+     */
+    protected void releaseCachedStatement(final Connection connection,
+        final String sql, final boolean generatedKeys, final PreparedStatement statement, final boolean failed) {
+        if ( statement == null ) return;
+        if ( failed ) close(statement);
+        else getStatementCache().release(connection, sql, generatedKeys, statement);
+    }
+
+    private static final int defaultParallelConversionThreshold =
+        SafePropertyAccessor.getInt("arjdbc.parallel_conversion.threshold", 0);
+
+    @JRubyMethod(name = "parallel_conversion_threshold")
+    public IRubyObject parallel_conversion_threshold(final ThreadContext context) {
+        return context.runtime.newFixnum(parallelConversionThreshold);
+    }
+
+    /**
+     * Results with more rows than the threshold get (the remaining) rows
+     * converted in parallel, set to 0 (the default) to disable.
+     * @param context
+     * @param threshold
+     * @return threshold
+     */
+    @JRubyMethod(name = "parallel_conversion_threshold=")
+    public IRubyObject set_parallel_conversion_threshold(final ThreadContext context, final IRubyObject threshold) {
+        this.parallelConversionThreshold = threshold.isNil() ? 0 : RubyNumeric.fix2int(threshold);
+        return threshold;
     }
 
     @JRubyMethod(name = "adapter")
@@ -577,11 +844,25 @@ public class RubyJdbcConnection extends RubyObject {
         if ( adapter != null && ! adapter.isNil() ) {
             if ( adapter.respondsTo("configure_connection") ) {
                 final ThreadContext context = getRuntime().getCurrentContext();
-                adapter.callMethod(context, "configure_connection");
+                final List<String> configureSQL = this.configureSQL = new ArrayList<>(8);
+                try {
+                    adapter.callMethod(context, "configure_connection");
+                    this.asyncConfigureSQL = configureSQL;
+                }
+                finally { this.configureSQL = null; }
+                closeAsyncConnections(); // configured using previous statements
             }
         }
     }
 
+    private List<String> configureSQL; // statements executed while configuring (recording)
+    private volatile List<String> asyncConfigureSQL = Collections.emptyList(); // replayed on async connections
+
+    private void recordConfigureSQL(final String sql) {
+        final List<String> configureSQL = this.configureSQL;
+        if ( configureSQL != null ) configureSQL.add(sql);
+    }
+
     @JRubyMethod(name = "configure_connection")
     public IRubyObject configure_connection(final ThreadContext context) {
         if ( ! lazy || getConnectionImpl() != null ) configureConnection();
@@ -646,6 +927,7 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "disconnect!")
     public synchronized IRubyObject disconnect(final ThreadContext context) {
         setConnection(null); connected = false;
+        closeAsyncConnections();
         return context.nil;
     }
 
@@ -774,6 +1056,8 @@ public class RubyJdbcConnection extends RubyObject {
                     updateCount = statement.getUpdateCount();
                 }
 
+                invalidateResultCache(context, connection, query);
+                recordConfigureSQL(query);
                 return result;
 
             } catch (final SQLException e) {
@@ -785,7 +1069,76 @@ public class RubyJdbcConnection extends RubyObject {
         });
     }
 
+    /**
+     * Executes (possibly multiple) SQL statements, e.g. a script or a stored
+     * procedure call, returning every result set and update count in order,
+     * all from a single round trip (unlike {@link #execute(ThreadContext, IRubyObject)}
+     * which only returns the last one).
+     * When a block is given results are yielded (streamed) one by one instead.
+     * @param context
+     * @param args the SQL and (optional) binds
+     * @param block
+     * @return an array of results (<code>ActiveRecord::Result</code> for result
+     * sets, integers for update counts) or the number of yielded results
+     */
+    @JRubyMethod(name = "execute_multi", required = 1, optional = 1)
+    public IRubyObject execute_multi(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        final String query = sqlString(args[0]);
+        final RubyArray binds = args.length > 1 && args[1] != context.nil ?
+                (RubyArray) TypeConverter.checkArrayType(args[1]) : null;
+        return withConnection(context, connection -> {
+            Statement statement = null;
+            try {
+                boolean hasResultSet;
+                if ( binds == null || binds.isEmpty() ) {
+                    statement = createStatement(context, connection);
+                    hasResultSet = doExecute(statement, query);
+                }
+                else {
+                    final PreparedStatement prepStatement;
+                    statement = prepStatement = applyStatementTimeout(connection.prepareStatement(query));
+                    setStatementParameters(context, connection, prepStatement, binds, query);
+                    hasResultSet = prepStatement.execute();
+                }
+                int updateCount = hasResultSet ? -1 : statement.getUpdateCount();
+
+                final RubyArray results = block.isGiven() ? null : context.runtime.newArray();
+                int count = 0;
+                while (hasResultSet || updateCount != -1) {
+                    final IRubyObject result;
+                    if (hasResultSet) { // mapped before moving on, as getMoreResults() closes it
+                        final ResultSet resultSet = statement.getResultSet();
+                        result = mapQueryResult(context, connection, resultSet);
+                        resultSet.close();
+                    } else {
+                        result = context.runtime.newFixnum(updateCount);
+                    }
+                    if ( results == null ) block.yield(context, result);
+                    else results.append(result);
+                    count++;
+
+                    hasResultSet = statement.getMoreResults();
+                    updateCount = hasResultSet ? -1 : statement.getUpdateCount();
+                }
+
+                invalidateResultCache(context, connection, query);
+                return results == null ? context.runtime.newFixnum(count) : results;
+
+            } catch (final SQLException e) {
+                debugErrorSQL(context, query);
+                throw e;
+            } finally {
+                close(statement);
+            }
+        });
+    }
+
     protected Statement createStatement(final ThreadContext context, final Connection connection)
+        throws SQLException {
+        return applyStatementTimeout(newStatement(context, connection));
+    }
+
+    private Statement newStatement(final ThreadContext context, final Connection connection)
         throws SQLException {
         final Statement statement = connection.createStatement();
         IRubyObject escapeProcessing = getConfigValue(context, "statement_escape_processing");
@@ -835,6 +1188,7 @@ public class RubyJdbcConnection extends RubyObject {
 
                 statement = createStatement(context, connection);
                 statement.executeUpdate(query, Statement.RETURN_GENERATED_KEYS);
+                invalidateResultCache(context, connection, query);
                 return mapGeneratedKeys(context, connection, statement);
 
             } catch (final SQLException e) {
@@ -857,24 +1211,455 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = "execute_insert", required = 2)
     public IRubyObject execute_insert(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
         return withConnection(context, connection -> {
-            PreparedStatement statement = null;
+            PreparedStatement statement = null; boolean failed = true;
             final String query = sqlString(sql);
             try {
 
-                statement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-                setStatementParameters(context, connection, statement, (RubyArray) binds);
+                statement = prepareCachedStatement(connection, query, true);
+                setStatementParameters(context, connection, statement, (RubyArray) binds, query);
                 statement.executeUpdate();
-                return mapGeneratedKeys(context, connection, statement);
+                invalidateResultCache(context, connection, query);
+                final IRubyObject keys = mapGeneratedKeys(context, connection, statement);
+                failed = false;
+                return keys;
 
             } catch (final SQLException e) {
                 debugErrorSQL(context, query);
                 throw e;
             } finally {
-                close(statement);
+                releaseCachedStatement(connection, query, true, statement, failed);
+            }
+        });
+    }
+
+    /**
+     * Executes a (prepared) statement for many sets of binds using JDBC batching,
+     * binds are added to the batch which gets executed every batch size rows.
+     * @param context
+     * @param args (sql, binds_list), (sql, binds_list, batch_size) or (sql, binds_list, batch_size, generated_keys)
+     * @return an array of (per binds) update counts (nil where unknown), when
+     * generated keys are requested <code>[ update_counts, generated_keys ]</code>
+     * (keys are only returned where the driver supports them for batches)
+     * @throws SQLException
+     */
+    @JRubyMethod(name = "execute_batch", required = 2, optional = 2)
+    public IRubyObject execute_batch(final ThreadContext context, final IRubyObject[] args) {
+        final String query = sqlString(args[0]);
+        final RubyArray bindsList = (RubyArray) TypeConverter.checkArrayType(args[1]);
+        final int batchSize = args.length > 2 && args[2] != context.nil ? RubyNumeric.fix2int(args[2]) : this.batchSize;
+        if ( batchSize <= 0 ) throw context.runtime.newArgumentError("batch size must be positive (got " + batchSize + ")");
+        final boolean generatedKeys = args.length > 3 && args[3].isTrue();
+
+        return withConnection(context, connection -> {
+            final Ruby runtime = context.runtime;
+            final RubyArray updateCounts = RubyArray.newArray(runtime, bindsList.size());
+            final RubyArray keys = generatedKeys ? runtime.newArray() : null;
+            if ( bindsList.isEmpty() ) {
+                return generatedKeys ? RubyArray.newArray(runtime, updateCounts, keys) : updateCounts;
+            }
+
+            PreparedStatement statement = null; boolean failed = true;
+            try {
+                statement = prepareCachedStatement(connection, query, generatedKeys);
+                int count = 0;
+                for ( int i = 0; i < bindsList.size(); i++ ) {
+                    setStatementParameters(context, connection, statement, (RubyArray) bindsList.eltInternal(i), query);
+                    statement.addBatch();
+                    if ( ++count == batchSize ) {
+                        executeBatch(context, connection, statement, updateCounts, keys);
+                        count = 0;
+                    }
+                }
+                if ( count > 0 ) executeBatch(context, connection, statement, updateCounts, keys);
+                failed = false;
+                invalidateResultCache(context, connection, query);
+                return generatedKeys ? RubyArray.newArray(runtime, updateCounts, keys) : updateCounts;
+            }
+            catch (final SQLException e) {
+                debugErrorSQL(context, query);
+                throw e;
+            }
+            finally {
+                if ( failed && statement != null ) {
+                    try { statement.clearBatch(); } catch (SQLException ignore) { /* closing */ }
+                }
+                releaseCachedStatement(connection, query, generatedKeys, statement, failed);
             }
         });
     }
 
+    private void executeBatch(final ThreadContext context, final Connection connection,
+        final PreparedStatement statement, final RubyArray updateCounts, final RubyArray keys) throws SQLException {
+        final Ruby runtime = context.runtime;
+        for ( final int count : statement.executeBatch() ) {
+            updateCounts.append( count == Statement.SUCCESS_NO_INFO ? context.nil : runtime.newFixnum(count) );
+        }
+        if ( keys != null ) {
+            final IRubyObject batchKeys = mapGeneratedKeys(runtime, connection, statement, false);
+            if ( batchKeys instanceof RubyArray ) keys.concat(context, batchKeys);
+        }
+    }
+
+    /**
+     * The statement timeout (in milliseconds) applied to executed statements,
+     * enforced by the driver's query timeout as well as a watchdog cancelling
+     * statements running past their deadline. Set using the
+     * <code>statement_timeout_ms</code> config option, 0 means no timeout.
+     * @param context
+     * @return current timeout (including a block-scoped override)
+     */
+    @JRubyMethod(name = "statement_timeout_ms")
+    public IRubyObject statement_timeout_ms(final ThreadContext context) {
+        return context.runtime.newFixnum(getStatementTimeout());
+    }
+
+    @JRubyMethod(name = "statement_timeout_ms=")
+    public IRubyObject set_statement_timeout_ms(final ThreadContext context, final IRubyObject timeout) {
+        this.statementTimeout = timeout.isNil() ? 0 : Math.max(0, RubyNumeric.fix2int(timeout));
+        return timeout;
+    }
+
+    /**
+     * Overrides the statement timeout for the duration of the given block.
+     * @param context
+     * @param timeout in milliseconds (0 or nil for no timeout)
+     * @param block
+     * @return the block's result
+     */
+    @JRubyMethod(name = "with_statement_timeout")
+    public IRubyObject with_statement_timeout(final ThreadContext context, final IRubyObject timeout, final Block block) {
+        final int previous = statementTimeoutOverride;
+        statementTimeoutOverride = timeout.isNil() ? 0 : Math.max(0, RubyNumeric.fix2int(timeout));
+        try {
+            return block.yield(context, timeout);
+        }
+        finally {
+            statementTimeoutOverride = previous;
+        }
+    }
+
+    /**
+     * Cancels the statement being executed (e.g. from another thread).
+     * @param context
+     * @return true if there was a statement to cancel
+     */
+    @JRubyMethod(name = "cancel_statement")
+    public IRubyObject cancel_statement(final ThreadContext context) {
+        return context.runtime.newBoolean(cancelActiveStatement());
+    }
+
+    protected final int getStatementTimeout() {
+        final int timeout = statementTimeoutOverride;
+        return timeout >= 0 ? timeout : statementTimeout;
+    }
+
+    /**
+     * Sets the query timeout (in seconds, rounded up) on the statement and
+     * marks it as the active one to be cancelled on timeout or interrupt.
+     * @param statement
+     * @return the statement
+     * @throws SQLException
+     */
+    protected <T extends Statement> T applyStatementTimeout(final T statement) throws SQLException {
+        final int timeout = getStatementTimeout();
+        final int seconds = timeout > 0 ? (timeout + 999) / 1000 : 0;
+        if ( statement.getQueryTimeout() != seconds ) statement.setQueryTimeout(seconds);
+        activeStatement = statement;
+        return statement;
+    }
+
+    private boolean cancelActiveStatement() {
+        synchronized (cancelLock) {
+            return doCancelActiveStatement();
+        }
+    }
+
+    // Cancels the statement only while the given call is still running, thus a
+    // watchdog (or wakeup) firing as its call finishes does not cancel (or mark
+    // as cancelled) a statement of the next call e.g. a reused cached statement.
+    private boolean cancelActiveStatement(final long call) {
+        synchronized (cancelLock) {
+            if ( call != currentCancellableCall ) return false;
+            return doCancelActiveStatement();
+        }
+    }
+
+    private boolean doCancelActiveStatement() {
+        final Statement statement = activeStatement;
+        if ( statement == null ) return false;
+        try {
+            statementCancelled = true;
+            statement.cancel();
+            return true;
+        }
+        catch (SQLException|RuntimeException e) {
+            debugMessage(getRuntime(), "failed to cancel statement: ", e);
+            return false;
+        }
+    }
+
+    // Runs the block as a (cancellable) task: an interrupt of the Ruby thread
+    // (Thread#raise, Thread#kill, Timeout) cancels the running statement and
+    // so does the watchdog once the statement timeout passes.
+    private <T> T callCancellable(final ThreadContext context, final Connection connection,
+        final Callable<T> block) throws SQLException {
+        if ( cancellableCall ) return block.call(connection); // nested
+
+        final long call;
+        synchronized (cancelLock) {
+            call = currentCancellableCall = ++cancellableCalls;
+            statementCancelled = false;
+        }
+        final int timeout = getStatementTimeout();
+        final ScheduledFuture<?> watchdog = timeout > 0 ?
+            StatementWatchdog.schedule(() -> cancelActiveStatement(call), timeout) : null;
+        cancellableCall = true;
+        try {
+            return context.getThread().executeTask(context, connection, new RubyThread.Task<Connection, T>() {
+
+                public T run(final ThreadContext context, final Connection connection) {
+                    try {
+                        return block.call(connection);
+                    }
+                    catch (SQLException e) {
+                        Helpers.throwException(e); return null; // re-thrown as is
+                    }
+                }
+
+                public void wakeup(final RubyThread thread, final Connection connection) {
+                    cancelActiveStatement(call);
+                }
+
+            });
+        }
+        catch (InterruptedException e) {
+            throw new SQLException("interrupted", e);
+        }
+        finally {
+            cancellableCall = false;
+            if ( watchdog != null ) watchdog.cancel(false);
+            synchronized (cancelLock) { // a (late) watchdog no longer cancels anything
+                currentCancellableCall = 0;
+                activeStatement = null;
+            }
+        }
+    }
+
+    /**
+     * Executes a write (INSERT/UPDATE/DELETE) whose result is not needed.
+     * With <code>deferred_writes</code> enabled and within a transaction the
+     * statement gets queued and executed (batched with consecutive writes of
+     * the same SQL) before the next statement, at commit or on a savepoint.
+     * @param context
+     * @param sql
+     * @param binds (might be nil)
+     * @return nil when queued, otherwise the affected row count
+     */
+    @JRubyMethod(name = "execute_deferred", required = 2)
+    public IRubyObject execute_deferred(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
+        final RubyArray bindsArray = binds == context.nil ? context.runtime.newEmptyArray() :
+                (RubyArray) TypeConverter.checkArrayType(binds);
+        final DeferredWrites deferredWrites = this.deferredWrites;
+        if ( deferredWrites != null ) {
+            final Connection connection = getConnectionImpl();
+            try {
+                if ( connection != null && ! connection.getAutoCommit() ) {
+                    deferredWrites.add(sqlString(sql), bindsArray);
+                    return context.nil;
+                }
+            }
+            catch (SQLException e) {
+                return handleException(context, e);
+            }
+        }
+        return execute_prepared_update(context, sql, bindsArray);
+    }
+
+    /**
+     * Executes (flushes) all queued deferred writes.
+     * @param context
+     * @return number of statements executed
+     */
+    @JRubyMethod(name = "flush_deferred_writes")
+    public IRubyObject flush_deferred_writes(final ThreadContext context) {
+        final DeferredWrites deferredWrites = this.deferredWrites;
+        if ( deferredWrites == null || deferredWrites.isEmpty() ) return context.runtime.newFixnum(0);
+        final int size = deferredWrites.size();
+        withConnection(context, connection -> context.nil); // flushes before calling the block
+        return context.runtime.newFixnum(size);
+    }
+
+    @JRubyMethod(name = "deferred_writes?")
+    public IRubyObject deferred_writes_p(final ThreadContext context) {
+        return context.runtime.newBoolean(deferredWrites != null);
+    }
+
+    /**
+     * Enables (or disables) deferred writes, disabling flushes queued writes.
+     * @param context
+     * @param flag
+     * @return flag
+     */
+    @JRubyMethod(name = "deferred_writes=")
+    public IRubyObject set_deferred_writes(final ThreadContext context, final IRubyObject flag) {
+        if ( flag.isTrue() ) {
+            if ( deferredWrites == null ) deferredWrites = new DeferredWrites();
+        }
+        else if ( deferredWrites != null ) {
+            flush_deferred_writes(context);
+            deferredWrites = null;
+        }
+        return flag;
+    }
+
+    @JRubyMethod(name = "deferred_write_count")
+    public IRubyObject deferred_write_count(final ThreadContext context) {
+        final DeferredWrites deferredWrites = this.deferredWrites;
+        return context.runtime.newFixnum(deferredWrites == null ? 0 : deferredWrites.size());
+    }
+
+    private void flushDeferredWrites(final ThreadContext context, final Connection connection) throws SQLException {
+        final DeferredWrites deferredWrites = this.deferredWrites;
+        if ( deferredWrites == null || deferredWrites.isEmpty() ) return;
+
+        for ( final DeferredWrites.Run run : deferredWrites.drain() ) {
+            PreparedStatement statement = null; boolean failed = true;
+            int executed = 0; int count = 0;
+            try {
+                statement = prepareCachedStatement(connection, run.sql, false);
+                for ( final RubyArray binds : run.binds ) {
+                    setStatementParameters(context, connection, statement, binds, run.sql);
+                    statement.addBatch();
+                    if ( ++count == batchSize ) {
+                        statement.executeBatch();
+                        executed += count; count = 0;
+                    }
+                }
+                if ( count > 0 ) statement.executeBatch();
+                failed = false;
+                invalidateResultCache(context, connection, run.sql);
+            }
+            catch (final SQLException e) {
+                deferredWrites.clear(); // transaction is expected to get rolled back
+                debugErrorSQL(context, run.sql);
+                int index = executed;
+                if ( e instanceof BatchUpdateException ) {
+                    final int[] counts = ((BatchUpdateException) e).getUpdateCounts();
+                    if ( counts != null ) index += counts.length; // drivers stopping at first failure
+                }
+                else if ( statement == null || count == 0 ) index = -1; // prepare failed
+                else index += count - 1; // failed setting parameters
+                final Object binds = index >= 0 && index < run.binds.size() ? run.binds.get(index) : null;
+                throw new DeferredWriteException(run.sql, binds, e);
+            }
+            finally {
+                if ( failed && statement != null ) {
+                    try { statement.clearBatch(); } catch (SQLException ignore) { /* closing */ }
+                }
+                releaseCachedStatement(connection, run.sql, false, statement, failed);
+            }
+        }
+    }
+
+    private void discardDeferredWrites() {
+        final DeferredWrites deferredWrites = this.deferredWrites;
+        if ( deferredWrites != null ) deferredWrites.clear();
+    }
+
+    /**
+     * The TTL (in milliseconds) of cached query results, set using the
+     * <code>result_cache_ttl_ms</code> config option, 0 means no caching.
+     * Results are cached (by SQL and binds) in a cache shared by connections
+     * and invalidated when a (cached) table is written to.
+     * Queries executed in a transaction are never cached, neither are locking
+     * reads or queries using volatile values (sequences, the current time) or
+     * calling functions other than (known) side-effect free built-ins.
+     * @param context
+     * @return current TTL
+     */
+    @JRubyMethod(name = "result_cache_ttl_ms")
+    public IRubyObject result_cache_ttl_ms(final ThreadContext context) {
+        return context.runtime.newFixnum(resultCacheTtl);
+    }
+
+    @JRubyMethod(name = "result_cache_ttl_ms=")
+    public IRubyObject set_result_cache_ttl_ms(final ThreadContext context, final IRubyObject ttl) {
+        this.resultCacheTtl = ttl.isNil() ? 0 : Math.max(0, RubyNumeric.fix2int(ttl));
+        return ttl;
+    }
+
+    /**
+     * @param context
+     * @return (shared) result cache statistics (hits, misses, invalidations and size)
+     */
+    @JRubyMethod(name = "result_cache_stats")
+    public IRubyObject result_cache_stats(final ThreadContext context) {
+        final QueryResultCache cache = QueryResultCache.peek(context.runtime);
+        if ( cache == null ) return RubyHash.newHash(context.runtime);
+        return cache.stats(context);
+    }
+
+    /**
+     * Clears the (shared) result cache.
+     * @param context
+     * @return nil
+     */
+    @JRubyMethod(name = "clear_result_cache")
+    public IRubyObject clear_result_cache(final ThreadContext context) {
+        final QueryResultCache cache = QueryResultCache.peek(context.runtime);
+        if ( cache != null ) cache.clear();
+        return context.nil;
+    }
+
+    private QueryResultCache.Lookup resultCacheLookup(final ThreadContext context, final Connection connection,
+        final String query, final RubyArray binds) throws SQLException {
+        if ( resultCacheTtl <= 0 ) return null;
+        if ( ! connection.getAutoCommit() ) return null; // transaction might see its own (uncommitted) writes
+        final QueryResultCache cache = QueryResultCache.getInstance(context.runtime);
+        if ( cache == null ) return null;
+        return cache.lookup(context, resultCacheScope(connection), query, binds, isBackslashEscapes());
+    }
+
+    /**
+     * Invalidates (shared) cached results the executed statement might have changed.
+     * Writes in a transaction get invalidated again once committed, as other
+     * connections might have cached (old) results meanwhile.
+     * @param context
+     * @param connection
+     * @param sql the executed statement
+     * @throws SQLException
+     */
+    protected void invalidateResultCache(final ThreadContext context, final Connection connection, final String sql)
+        throws SQLException {
+        final QueryResultCache cache = QueryResultCache.peek(context.runtime);
+        if ( cache == null ) return; // no connection caches results
+        cache.invalidate(resultCacheScope(connection), sql, isBackslashEscapes());
+        if ( ! connection.getAutoCommit() ) {
+            if ( resultCachePending == null ) resultCachePending = new ArrayList<>(4);
+            resultCachePending.add(sql);
+        }
+    }
+
+    private void invalidateResultCachePending(final ThreadContext context, final Connection connection)
+        throws SQLException {
+        final List<String> pending = resultCachePending;
+        if ( pending == null ) return;
+        resultCachePending = null;
+        final QueryResultCache cache = QueryResultCache.peek(context.runtime);
+        if ( cache == null ) return;
+        final String scope = resultCacheScope(connection);
+        for ( final String sql : pending ) cache.invalidate(scope, sql, isBackslashEscapes());
+    }
+
+    private String resultCacheScope(final Connection connection) throws SQLException {
+        String scope = this.resultCacheScope;
+        if ( scope == null ) {
+            final DatabaseMetaData metaData = connection.getMetaData();
+            this.resultCacheScope = scope = metaData.getURL() + ' ' + metaData.getUserName();
+        }
+        return scope;
+    }
+
     /**
      * Executes an UPDATE (DELETE) SQL statement
      * @param context
@@ -892,6 +1677,7 @@ public class RubyJdbcConnection extends RubyObject {
                 statement = createStatement(context, connection);
 
                 final int rowCount = statement.executeUpdate(query);
+                invalidateResultCache(context, connection, query);
                 return context.runtime.newFixnum(rowCount);
             } catch (final SQLException e) {
                 debugErrorSQL(context, query);
@@ -914,18 +1700,20 @@ public class RubyJdbcConnection extends RubyObject {
     @JRubyMethod(name = {"execute_prepared_update", "execute_prepared_delete"}, required = 2)
     public IRubyObject execute_prepared_update(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
         return withConnection(context, (Callable<IRubyObject>) connection -> {
-            PreparedStatement statement = null;
+            PreparedStatement statement = null; boolean failed = true;
             final String query = sqlString(sql);
             try {
-                statement = connection.prepareStatement(query);
-                setStatementParameters(context, connection, statement, (RubyArray) binds);
+                statement = prepareCachedStatement(connection, query, false);
+                setStatementParameters(context, connection, statement, (RubyArray) binds, query);
                 final int rowCount = statement.executeUpdate();
+                failed = false;
+                invalidateResultCache(context, connection, query);
                 return context.runtime.newFixnum(rowCount);
             } catch (final SQLException e) {
                 debugErrorSQL(context, query);
                 throw e;
             } finally {
-                close(statement);
+                releaseCachedStatement(connection, query, false, statement, failed);
             }
         });
     }
@@ -967,13 +1755,44 @@ public class RubyJdbcConnection extends RubyObject {
                 break;
         }
 
-        return doExecuteQueryRaw(context, query, maxRows, block, binds);
+        return doExecuteQueryRaw(context, query, maxRows, block, binds, 0, false);
+    }
+
+    /**
+     * Same as {@link #execute_query_raw(ThreadContext, IRubyObject[], Block)} with a block
+     * but rows are yielded in slices, each slice being an array of (up to slice size)
+     * row value arrays. This amortizes block dispatch for large (ETL-like) results.
+     *
+     * When <code>reuse_rows</code> is true the slice and its row arrays are reused
+     * for the next slice (values get overwritten), thus the block needs to copy
+     * rows it wants to keep.
+     *
+     * @param context which context this method is executing on.
+     * @param args (sql, slice_size, max_rows = 0, binds = nil, reuse_rows = false)
+     * @param block to yield row slices, e.g. <code>[ [id1, name1], [id2, name2] ]</code>
+     * @return nil
+     */
+    @JRubyMethod(required = 2, optional = 3)
+    public IRubyObject execute_query_raw_slices(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        final String query = sqlString( args[0] ); // sql
+        final int sliceSize = RubyNumeric.fix2int(args[1]);
+        if ( sliceSize <= 0 ) throw context.runtime.newArgumentError("slice size must be positive (got " + sliceSize + ")");
+        if ( ! block.isGiven() ) throw context.runtime.newArgumentError("block expected");
+
+        final int maxRows = args.length > 2 && args[2] != context.nil ? RubyNumeric.fix2int(args[2]) : 0;
+        final RubyArray binds = args.length > 3 && args[3] != context.nil ?
+                (RubyArray) TypeConverter.checkArrayType(args[3]) : null;
+        final boolean reuseRows = args.length > 4 && args[4].isTrue();
+
+        return doExecuteQueryRaw(context, query, maxRows, block, binds, sliceSize, reuseRows);
     }
 
     private IRubyObject doExecuteQueryRaw(final ThreadContext context,
-        final String query, final int maxRows, final Block block, final RubyArray binds) {
+        final String query, final int maxRows, final Block block, final RubyArray binds,
+        final int sliceSize, final boolean reuseRows) {
         return withConnection(context, connection -> {
             Statement statement = null; boolean hasResult;
+            PreparedStatement prepStatement = null; boolean failed = false;
             try {
                 if ( binds == null || binds.isEmpty()) { // plain statement
                     statement = createStatement(context, connection);
@@ -981,71 +1800,319 @@ public class RubyJdbcConnection extends RubyObject {
                     hasResult = statement.execute(query);
                 }
                 else {
-                    final PreparedStatement prepStatement;
-                    statement = prepStatement = connection.prepareStatement(query);
-                    if (fetchSize != 0) statement.setFetchSize(fetchSize);
-                    statement.setMaxRows(maxRows); // zero means there is no limit
-                    setStatementParameters(context, connection, prepStatement, binds);
+                    statement = prepStatement = prepareCachedStatement(connection, query, false);
+                    statement.setMaxRows(maxRows); // zero means there is no limit
+                    setStatementParameters(context, connection, prepStatement, binds, query);
+                    hasResult = prepStatement.execute();
+                }
+                invalidateResultCache(context, connection, query); // (raw) queries might be writes
+
+                if (block.isGiven()) {
+                    if (hasResult && sliceSize > 0) {
+                        // yield([ [id1, name1], [id2, name2] ]) ... rows 1-2 result data
+                        return yieldResultSlices(context, connection, statement.getResultSet(), block, sliceSize, reuseRows);
+                    }
+                    if (hasResult) {
+                        // yield(id1, name1) ... row 1 result data
+                        // yield(id2, name2) ... row 2 result data
+                        return yieldResultRows(context, connection, statement.getResultSet(), block);
+                    }
+                    return context.nil;
+                }
+                if (hasResult) {
+                    return mapToRawResult(context, connection, statement.getResultSet(), false);
+                }
+                return context.runtime.newEmptyArray();
+            }
+            catch (final SQLException e) {
+                failed = true;
+                debugErrorSQL(context, query);
+                throw e;
+            }
+            finally {
+                if (prepStatement != null) {
+                    releaseCachedStatement(connection, query, false, prepStatement, failed);
+                }
+                else {
+                    close(statement);
+                }
+            }
+        });
+    }
+
+    protected static String sqlString(final IRubyObject sql) {
+        return sql.convertToString().decodeString();
+    }
+
+    /**
+     * Executes a query and returns the (AR) result
+     *
+     * @param context which context this method is executing on
+     * @param sql the query to execute
+     * @return a Ruby <code>ActiveRecord::Result</code> instance
+     * @throws SQLException when a database error occurs
+     */
+    @JRubyMethod(required = 1)
+    public IRubyObject execute_query(final ThreadContext context, final IRubyObject sql) {
+        return withConnection(context, connection -> {
+            Statement statement = null;
+            final String query = sqlString(sql);
+            final QueryResultCache.Lookup cacheLookup = resultCacheLookup(context, connection, query, null);
+            if ( cacheLookup != null ) {
+                final IRubyObject cached = cacheLookup.get(context);
+                if ( cached != null ) return cached;
+            }
+            try {
+                statement = createStatement(context, connection);
+
+                // At least until AR 5.1 #exec_query still gets called for things that don't return results in some cases :(
+                final boolean hasResultSet = statement.execute(query);
+                // writes (e.g. SQLite's INSERT, AR's insert_all) and DDL get here as well
+                invalidateResultCache(context, connection, query);
+                if (hasResultSet) {
+                    final IRubyObject result = mapQueryResult(context, connection, statement.getResultSet());
+                    if ( cacheLookup != null ) cacheLookup.put(context, result, resultCacheTtl);
+                    return result;
+                }
+
+                return newEmptyResult(context);
+
+            } catch (final SQLException e) {
+                debugErrorSQL(context, query);
+                throw e;
+            } finally {
+                close(statement);
+            }
+        });
+    }
+
+    /**
+     * Executes a query asynchronously (on a bounded, shared executor) using a
+     * separate connection, thus the query does not see (uncommitted) changes
+     * of this connection's transaction.
+     *
+     * Async connections are opened by this connection (outside of AR's pool)
+     * and configured by replaying the statements executed by the adapter's
+     * <code>configure_connection</code> (e.g. PostgreSQL's search path and time
+     * zone), session state changed later on is not carried over. At most
+     * <code>-Darjdbc.async.max_connections</code> (default 2) async connections
+     * are open at a time (per connection), further queries wait for one to be
+     * released. Up to <code>-Darjdbc.async.max_idle</code> (default 2) are kept
+     * open for re-use, idle ones are closed after
+     * <code>-Darjdbc.async.idle_timeout</code> seconds (default 60) and on
+     * <code>disconnect!</code>.
+     *
+     * Only the query and (value) conversion of its rows run on the executor,
+     * what uses the (not thread-safe) adapter e.g. resolving PostgreSQL's type
+     * map is done by the thread asking the future for its value.
+     * @param context
+     * @param sql the query to execute
+     * @return a future (<code>JdbcConnection::Future</code>) of the result
+     * @see #mapAsyncQueryResult(ThreadContext, Connection, ResultSet)
+     */
+    @JRubyMethod(name = "execute_query_async", required = 1)
+    public IRubyObject execute_query_async(final ThreadContext context, final IRubyObject sql) {
+        return executeQueryAsync(context, sqlString(sql), null);
+    }
+
+    /**
+     * @param context
+     * @param sql the query to execute
+     * @param binds the query's binds
+     * @return a future (<code>JdbcConnection::Future</code>) of the result
+     * @see #execute_query_async(ThreadContext, IRubyObject)
+     */
+    @JRubyMethod(name = "execute_prepared_query_async", required = 2)
+    public IRubyObject execute_prepared_query_async(final ThreadContext context, final IRubyObject sql, final IRubyObject binds) {
+        final RubyArray bindsArray = binds == context.nil ? null : (RubyArray) TypeConverter.checkArrayType(binds);
+        return executeQueryAsync(context, sqlString(sql), bindsArray);
+    }
+
+    private static final int ASYNC_MAX_CONNECTIONS = Math.max(1, SafePropertyAccessor.getInt("arjdbc.async.max_connections", 2));
+    private static final int ASYNC_MAX_IDLE = SafePropertyAccessor.getInt("arjdbc.async.max_idle", 2);
+    private static final long ASYNC_IDLE_TIMEOUT = // nanos
+        TimeUnit.SECONDS.toNanos(SafePropertyAccessor.getInt("arjdbc.async.idle_timeout", 60));
+
+    private final ArrayDeque<IdleConnection> asyncConnections = new ArrayDeque<>(); // idle (most recent first)
+    private int asyncConnectionCount; // open (idle and in use), guarded by asyncConnections
+
+    private static final class IdleConnection {
+
+        final Connection connection;
+        final long since; // System.nanoTime()
+
+        IdleConnection(final Connection connection) {
+            this.connection = connection;
+            this.since = System.nanoTime();
+        }
+
+    }
+
+    private QueryFuture executeQueryAsync(final ThreadContext context, final String query, final RubyArray binds) {
+        final int timeout = getStatementTimeout();
+        final Ruby runtime = context.runtime;
+        return QueryFuture.submit(runtime, this, (future) -> {
+            if ( future.isCancelled() ) return null;
+            final ThreadContext ctx = runtime.getCurrentContext(); // executor thread
+            final Connection connection = checkoutAsyncConnection();
+            Statement statement = null; boolean failed = true;
+            final ScheduledFuture<?> watchdog = timeout > 0 ?
+                StatementWatchdog.schedule(future::cancelStatement, timeout) : null;
+            try {
+                final boolean hasResult;
+                if ( binds == null || binds.isEmpty() ) {
+                    statement = newStatement(ctx, connection);
+                    statement.setQueryTimeout((timeout + 999) / 1000);
+                    future.setStatement(statement);
+                    hasResult = statement.execute(query);
+                }
+                else {
+                    final PreparedStatement prepStatement = connection.prepareStatement(query);
+                    statement = prepStatement;
+                    if ( fetchSize != 0 ) prepStatement.setFetchSize(fetchSize);
+                    prepStatement.setQueryTimeout((timeout + 999) / 1000);
+                    setStatementParameters(ctx, connection, prepStatement, binds, query);
+                    future.setStatement(statement);
                     hasResult = prepStatement.execute();
                 }
-
-                if (block.isGiven()) {
-                    if (hasResult) {
-                        // yield(id1, name1) ... row 1 result data
-                        // yield(id2, name2) ... row 2 result data
-                        return yieldResultRows(context, connection, statement.getResultSet(), block);
-                    }
-                    return context.nil;
-                }
-                if (hasResult) {
-                    return mapToRawResult(context, connection, statement.getResultSet(), false);
-                }
-                return context.runtime.newEmptyArray();
+                final IRubyObject result = hasResult ?
+                    mapAsyncQueryResult(ctx, connection, statement.getResultSet()) : newEmptyResult(ctx);
+                failed = false;
+                return result;
             }
             catch (final SQLException e) {
-                debugErrorSQL(context, query);
+                debugErrorSQL(ctx, query);
                 throw e;
             }
             finally {
+                if ( watchdog != null ) watchdog.cancel(false);
                 close(statement);
+                releaseAsyncConnection(connection, failed);
             }
         });
     }
 
-    protected static String sqlString(final IRubyObject sql) {
-        return sql.convertToString().decodeString();
+    private Connection checkoutAsyncConnection() throws SQLException, InterruptedException {
+        synchronized (asyncConnections) {
+            while (true) {
+                closeExpiredAsyncConnections();
+                final IdleConnection idle = asyncConnections.poll();
+                if ( idle != null ) return idle.connection;
+                if ( asyncConnectionCount < ASYNC_MAX_CONNECTIONS ) break;
+                asyncConnections.wait(); // until one gets released (or closed)
+            }
+            asyncConnectionCount++;
+        }
+
+        final Connection connection;
+        try {
+            connection = newConnection();
+        }
+        catch (SQLException|RuntimeException e) {
+            asyncConnectionClosed(); throw e;
+        }
+        Statement statement = null;
+        try {
+            for ( final String sql : asyncConfigureSQL ) { // same setup as this connection
+                if ( statement == null ) statement = connection.createStatement();
+                statement.execute(sql);
+            }
+        }
+        catch (SQLException|RuntimeException e) {
+            closeAsyncConnection(connection); throw e;
+        }
+        finally { close(statement); }
+        return connection;
     }
 
     /**
-     * Executes a query and returns the (AR) result
-     *
-     * @param context which context this method is executing on
-     * @param sql the query to execute
-     * @return a Ruby <code>ActiveRecord::Result</code> instance
-     * @throws SQLException when a database error occurs
+     * Maps the result of an asynchronously executed query, called on an executor
+     * thread thus (unlike {@link #mapQueryResult(ThreadContext, Connection, ResultSet)})
+     * must not use the adapter (e.g. to resolve column types), mapping is completed
+     * on the thread awaiting the result by {@link #completeAsyncQueryResult(ThreadContext, IRubyObject)}.
+     * @param context the (executor thread's) context
+     * @param connection the async connection
+     * @param resultSet
+     * @return a result or an intermediate result to be completed
+     * @throws SQLException
      */
-    @JRubyMethod(required = 1)
-    public IRubyObject execute_query(final ThreadContext context, final IRubyObject sql) {
-        return withConnection(context, connection -> {
-            Statement statement = null;
-            final String query = sqlString(sql);
-            try {
-                statement = createStatement(context, connection);
+    protected IRubyObject mapAsyncQueryResult(final ThreadContext context,
+        final Connection connection, final ResultSet resultSet) throws SQLException {
+        return mapQueryResult(context, connection, resultSet);
+    }
 
-                // At least until AR 5.1 #exec_query still gets called for things that don't return results in some cases :(
-                if (statement.execute(query)) {
-                    return mapQueryResult(context, connection, statement.getResultSet());
+    /**
+     * Completes mapping of an asynchronously executed query's result, called on
+     * the thread awaiting the result (the one using this connection and adapter).
+     * @param context
+     * @param result as returned from {@link #mapAsyncQueryResult(ThreadContext, Connection, ResultSet)}
+     * @return <code>ActiveRecord::Result</code>
+     * @throws SQLException
+     */
+    protected IRubyObject completeAsyncQueryResult(final ThreadContext context, final IRubyObject result)
+        throws SQLException {
+        return result;
+    }
+
+    private void releaseAsyncConnection(final Connection connection, final boolean failed) {
+        try {
+            if ( ! failed && ! connection.isClosed() && connection.getAutoCommit() ) {
+                synchronized (asyncConnections) {
+                    closeExpiredAsyncConnections();
+                    if ( asyncConnections.size() < ASYNC_MAX_IDLE ) {
+                        asyncConnections.push(new IdleConnection(connection));
+                        asyncConnections.notify();
+                        scheduleAsyncReaper();
+                        return;
+                    }
                 }
+            }
+        }
+        catch (SQLException e) { /* close */ }
+        closeAsyncConnection(connection);
+    }
 
-                return newEmptyResult(context);
+    private void closeAsyncConnection(final Connection connection) {
+        close(connection);
+        asyncConnectionClosed();
+    }
 
-            } catch (final SQLException e) {
-                debugErrorSQL(context, query);
-                throw e;
-            } finally {
-                close(statement);
+    private void asyncConnectionClosed() {
+        synchronized (asyncConnections) {
+            asyncConnectionCount--;
+            asyncConnections.notify();
+        }
+    }
+
+    private void closeAsyncConnections() {
+        synchronized (asyncConnections) {
+            IdleConnection idle;
+            while ( ( idle = asyncConnections.poll() ) != null ) closeAsyncConnection(idle.connection);
+        }
+    }
+
+    private boolean asyncReaperScheduled; // guarded by asyncConnections
+
+    // NOTE: expected to be called while holding the (asyncConnections) lock
+    private void scheduleAsyncReaper() {
+        if ( asyncReaperScheduled ) return;
+        asyncReaperScheduled = true;
+        StatementWatchdog.schedule(() -> {
+            synchronized (asyncConnections) {
+                asyncReaperScheduled = false;
+                closeExpiredAsyncConnections();
+                if ( ! asyncConnections.isEmpty() ) scheduleAsyncReaper();
             }
-        });
+        }, TimeUnit.NANOSECONDS.toMillis(ASYNC_IDLE_TIMEOUT) + 1);
+    }
+
+    // NOTE: expected to be called while holding the (asyncConnections) lock
+    private void closeExpiredAsyncConnections() {
+        final long now = System.nanoTime();
+        IdleConnection idle; // least recently used ones are last
+        while ( ( idle = asyncConnections.peekLast() ) != null && now - idle.since > ASYNC_IDLE_TIMEOUT ) {
+            closeAsyncConnection(asyncConnections.pollLast().connection);
+        }
     }
 
     /**
@@ -1085,41 +2152,143 @@ public class RubyJdbcConnection extends RubyObject {
         final IRubyObject binds, final IRubyObject cachedStatement) {
         return withConnection(context, connection -> {
             final boolean cached = !(cachedStatement == null || cachedStatement.isNil());
-            String query = null;
-            PreparedStatement statement = null;
+            final String query = sql.convertToString().getUnicodeValue();
+            final QueryResultCache.Lookup cacheLookup = resultCacheLookup(context, connection, query, (RubyArray) binds);
+            if ( cacheLookup != null ) {
+                final IRubyObject result = cacheLookup.get(context);
+                if ( result != null ) return result;
+            }
+            PreparedStatement statement = null; boolean failed = true;
 
             try {
                 if (cached) {
-                    statement = (PreparedStatement) JavaEmbedUtils.rubyToJava(cachedStatement);
+                    statement = applyStatementTimeout((PreparedStatement) JavaEmbedUtils.rubyToJava(cachedStatement));
                 } else {
-                    query = sql.convertToString().getUnicodeValue();
-                    statement = connection.prepareStatement(query);
-                    if (fetchSize != 0) statement.setFetchSize(fetchSize);
+                    statement = prepareCachedStatement(connection, query, false);
                 }
 
-                setStatementParameters(context, connection, statement, (RubyArray) binds);
+                setStatementParameters(context, connection, statement, (RubyArray) binds, query);
 
-                if (statement.execute()) {
+                final IRubyObject results;
+                final boolean hasResultSet = statement.execute();
+                invalidateResultCache(context, connection, query);
+                if (hasResultSet) {
                     ResultSet resultSet = statement.getResultSet();
-                    IRubyObject results = mapQueryResult(context, connection, resultSet);
+                    results = cached || getStatementCache().getLimit() > 0 ?
+                            mapQueryResult(context, connection, resultSet, resultColumns(statement)) :
+                            mapQueryResult(context, connection, resultSet);
                     resultSet.close();
-
-                    return results;
+                    if ( cacheLookup != null ) cacheLookup.put(context, results, resultCacheTtl);
                 } else {
-                    return newEmptyResult(context);
+                    results = newEmptyResult(context);
                 }
+                failed = false;
+                return results;
             } catch (final SQLException e) {
-                if (query == null) query = sql.convertToString().getUnicodeValue();
                 debugErrorSQL(context, query);
                 throw e;
             } finally {
                 if ( cached ) {
                     statement.clearParameters();
                 } else {
+                    releaseCachedStatement(connection, query, false, statement, failed);
+                }
+            }
+        });
+    }
+
+    private static final int DEFAULT_CURSOR_CHUNK_SIZE = 1000;
+
+    /**
+     * Executes a query and returns a cursor (<code>JdbcConnection::Cursor</code>)
+     * for reading the result set in chunks of rows, the statement's fetch size is
+     * set to the chunk size so that drivers do not need to buffer the whole result.
+     * When a block is given the cursor is yielded and closed once the block returns.
+     *
+     * @param context which context this method is executing on.
+     * @param args (sql), (sql, binds) or (sql, binds, chunk_size)
+     * @param block (optional) block to yield the cursor
+     * @return a cursor (or the block's result), nil if the query returned no result set
+     */
+    @JRubyMethod(required = 1, optional = 2)
+    public IRubyObject execute_cursor(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        final String query = sqlString(args[0]);
+        final RubyArray binds = args.length > 1 && args[1] != context.nil ?
+                (RubyArray) TypeConverter.checkArrayType(args[1]) : null;
+        final int chunkSize;
+        if (args.length > 2 && args[2] != context.nil) chunkSize = RubyNumeric.fix2int(args[2]);
+        else chunkSize = fetchSize > 0 ? fetchSize : DEFAULT_CURSOR_CHUNK_SIZE;
+        if ( chunkSize <= 0 ) throw context.runtime.newArgumentError("chunk size must be positive (got " + chunkSize + ")");
+
+        final IRubyObject cursor = withConnection(context, connection -> {
+            Statement statement = null; boolean resetAutoCommit = false;
+            try {
+                if (connection.getAutoCommit() && cursorRequiresTransaction()) {
+                    connection.setAutoCommit(false);
+                    resetAutoCommit = true;
+                }
+
+                final boolean hasResult;
+                if (binds == null || binds.isEmpty()) { // plain statement
+                    statement = createStatement(context, connection);
+                    statement.setFetchSize(chunkSize);
+                    hasResult = statement.execute(query);
+                }
+                else {
+                    final PreparedStatement prepStatement;
+                    statement = prepStatement = applyStatementTimeout(connection.prepareStatement(query));
+                    statement.setFetchSize(chunkSize);
+                    setStatementParameters(context, connection, prepStatement, binds, query);
+                    hasResult = prepStatement.execute();
+                }
+
+                if (!hasResult) {
                     close(statement);
+                    if (resetAutoCommit) {
+                        resetAutoCommit = false;
+                        connection.commit();
+                        connection.setAutoCommit(true);
+                    }
+                    return context.nil;
                 }
+
+                return new ResultCursor(context, this, connection, statement, statement.getResultSet(), chunkSize, resetAutoCommit);
+            }
+            catch (final SQLException|RuntimeException e) {
+                close(statement);
+                if (resetAutoCommit) {
+                    try { connection.rollback(); connection.setAutoCommit(true); }
+                    catch (SQLException ignore) { /* original exception is what matters */ }
+                }
+                debugErrorSQL(context, query);
+                throw e;
             }
         });
+
+        if (!block.isGiven() || cursor == context.nil) return cursor;
+        final IRubyObject result;
+        try {
+            result = block.yield(context, cursor);
+        }
+        catch (JumpException e) { // break out of the block completes normally
+            ((ResultCursor) cursor).close(context);
+            throw e;
+        }
+        catch (RuntimeException|Error e) {
+            ((ResultCursor) cursor).abort(); // roll back (a transaction started for the cursor)
+            throw e;
+        }
+        ((ResultCursor) cursor).close(context);
+        return result;
+    }
+
+    /**
+     * Whether the driver only streams (fetch size sized) results inside a transaction,
+     * when true cursors run in a transaction (unless already in one).
+     * @return false by default
+     */
+    protected boolean cursorRequiresTransaction() {
+        return false;
     }
 
     protected IRubyObject mapQueryResult(final ThreadContext context,
@@ -1128,6 +2297,47 @@ public class RubyJdbcConnection extends RubyObject {
         return mapToResult(context, connection, resultSet, columns);
     }
 
+    /**
+     * Maps a query result of a cached statement, columns are only extracted
+     * on the first execution and reused afterwards.
+     * @param context
+     * @param connection
+     * @param resultSet
+     * @param resultColumns the statement's cached result (column) metadata
+     * @return <code>ActiveRecord::Result</code>
+     * @throws SQLException
+     * @see #resultColumns(Statement)
+     */
+    protected IRubyObject mapQueryResult(final ThreadContext context,
+        final Connection connection, final ResultSet resultSet,
+        final ResultColumns resultColumns) throws SQLException {
+        final ResultSetMetaData metaData = resultSet.getMetaData();
+        ColumnData[] columns = resultColumns.getColumns(metaData);
+        if ( columns == null ) {
+            columns = extractColumns(context, connection, resultSet, false);
+            resultColumns.setColumns(columns, metaData);
+        }
+        try {
+            return mapToResult(context, connection, resultSet, columns);
+        }
+        catch (SQLException|RuntimeException e) {
+            resultColumns.invalidate(); // columns might no longer match (re-resolve on next execution)
+            throw e;
+        }
+    }
+
+    /**
+     * @param statement a (cached) statement
+     * @return result metadata holder for the statement, kept while the statement is reachable
+     */
+    protected ResultColumns resultColumns(final Statement statement) {
+        ResultColumns columns = resultColumnsCache.get(statement);
+        if ( columns == null ) {
+            resultColumnsCache.put(statement, columns = new ResultColumns());
+        }
+        return columns;
+    }
+
     @JRubyMethod(name = "supported_data_types")
     public IRubyObject supported_data_types(final ThreadContext context) throws SQLException {
         final Connection connection = getConnection(true);
@@ -1526,7 +2736,9 @@ public class RubyJdbcConnection extends RubyObject {
                 }
                 setStatementParameter(context, context.runtime, connection, statement, 2, idValue, idColumn);
                 */
-                return statement.executeUpdate();
+                final int count = statement.executeUpdate();
+                invalidateResultCache(context, connection, sql);
+                return count;
             }
             finally { close(statement); }
         });
@@ -1886,42 +3098,283 @@ public class RubyJdbcConnection extends RubyObject {
         this.connectionFactory = connectionFactory;
     }
 
-    protected Connection newConnection() throws SQLException {
-        return getConnectionFactory().newConnection();
+    protected Connection newConnection() throws SQLException {
+        return getConnectionFactory().newConnection();
+    }
+
+    private static String[] getTypes(final IRubyObject typeArg) {
+        if ( typeArg instanceof RubyArray ) {
+            final RubyArray typesArr = (RubyArray) typeArg;
+            final String[] types = new String[typesArr.size()];
+            for ( int i = 0; i < types.length; i++ ) {
+                types[i] = typesArr.eltInternal(i).toString();
+            }
+            return types;
+        }
+        return new String[] { typeArg.toString() }; // expect a RubyString
+    }
+
+    /**
+     * Maps a query result into a <code>ActiveRecord</code> result.
+     * @param context
+     * @param connection
+     * @param resultSet
+     * @param columns
+     * @return expected to return a <code>ActiveRecord::Result</code>
+     * @throws SQLException
+     */
+    protected IRubyObject mapToResult(final ThreadContext context, final Connection connection,
+                                      final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
+        if (columnarResults) { // values get converted to Ruby on access
+            return ColumnarResult.newLazyResult(context, this, resultSet, columns);
+        }
+
+        final Ruby runtime = context.runtime;
+
+        final ColumnConverter[] converters = columnConverters(context, resultSet, columns);
+
+        // NOTE: dedup-ed string converters are stateful - not to be used concurrently
+        if (parallelConversionThreshold > 0 && dedupStrings == 0 && isParallelConvertible(columns)) {
+            final RubyArray resultRows = ParallelRowMapper.mapRows(context, columns, converters, resultSet, parallelConversionThreshold);
+            return newResult(context, columns, resultRows);
+        }
+
+        final RubyArray resultRows = runtime.newArray();
+
+        while (resultSet.next()) {
+            resultRows.append(mapRow(context, runtime, columns, converters, resultSet));
+        }
+
+        return newResult(context, columns, resultRows);
+    }
+
+    /**
+     * Resolves converters for the given result set columns.
+     * @param context
+     * @param resultSet
+     * @param columns
+     * @return converters (in the same order as columns)
+     * @throws SQLException
+     * @see #columnConverter(ThreadContext, ResultSet, int, int)
+     */
+    protected ColumnConverter[] columnConverters(final ThreadContext context,
+        final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
+        final ColumnConverter[] converters = new ColumnConverter[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            converters[i] = resultColumnConverter(context, resultSet, columns[i].index, columns[i].type);
+        }
+        return converters;
+    }
+
+    // a (per result set) column converter, with dedup-ed strings if enabled
+    final ColumnConverter resultColumnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        final ColumnConverter converter = columnConverter(context, resultSet, column, type);
+        if (dedupStrings > 0) {
+            switch (type) {
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                    return new DedupColumnConverter(converter, dedupStrings);
+            }
+        }
+        return converter;
+    }
+
+    private static final ColumnConverter NIL_CONVERTER = (context, runtime, resultSet, column) -> context.nil;
+
+    /**
+     * Resolves a (Ruby) value converter for a result set column, this is the
+     * per-column equivalent of {@link #jdbcToRuby(ThreadContext, Ruby, int, int, ResultSet)}
+     * and sub-classes customizing value conversion are expected to override both.
+     * @param context current thread context
+     * @param resultSet the result set
+     * @param column the (one based) column index
+     * @param type the column's JDBC type
+     * @return a converter for the column
+     * @throws SQLException
+     */
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        if (lazyLobs && isLazyLob(type) && isLazyLobReadable(resultSet)) {
+            return lazyLobConverter(type);
+        }
+        switch (type) {
+        case Types.BLOB:
+            return this::blobToRuby;
+        case Types.BINARY:
+        case Types.VARBINARY:
+        case Types.LONGVARBINARY:
+            return (ctx, runtime, rs, index) -> {
+                try {
+                    return streamToRuby(ctx, runtime, rs, index);
+                }
+                catch (IOException e) {
+                    throw new SQLException(e.getMessage(), e);
+                }
+            };
+        case Types.CLOB:
+        case Types.NCLOB: // JDBC 4.0
+            return (ctx, runtime, rs, index) -> {
+                try {
+                    return clobToRuby(ctx, runtime, rs, index);
+                }
+                catch (IOException e) {
+                    throw new SQLException(e.getMessage(), e);
+                }
+            };
+        case Types.LONGVARCHAR:
+        case Types.LONGNVARCHAR: // JDBC 4.0
+            return (ctx, runtime, rs, index) -> {
+                try {
+                    return readerToRuby(ctx, runtime, rs, index);
+                }
+                catch (IOException e) {
+                    throw new SQLException(e.getMessage(), e);
+                }
+            };
+        case Types.TINYINT:
+        case Types.SMALLINT:
+        case Types.INTEGER:
+            return this::integerToRuby;
+        case Types.REAL:
+        case Types.FLOAT:
+        case Types.DOUBLE:
+            return this::doubleToRuby;
+        case Types.BIGINT:
+            return this::bigIntegerToRuby;
+        case Types.NUMERIC:
+        case Types.DECIMAL:
+            final RubyClass bigDecimal = context.runtime.getClass("BigDecimal");
+            return (ctx, runtime, rs, index) -> decimalToRuby(ctx, runtime, rs, index, bigDecimal);
+        case Types.DATE:
+            return this::dateToRuby;
+        case Types.TIME:
+            return this::timeToRuby;
+        case Types.TIMESTAMP:
+            final DateTimeZone defaultZone = getDefaultTimeZone(context); // once per result set
+            return (ctx, runtime, rs, index) -> timestampToRuby(ctx, runtime, rs, index, defaultZone);
+        case Types.BIT:
+            return this::bitToRuby;
+        case Types.BOOLEAN:
+            return this::booleanToRuby;
+        case Types.SQLXML: // JDBC 4.0
+            return this::xmlToRuby;
+        case Types.ARRAY:
+            return this::arrayToRuby;
+        case Types.NULL:
+            return NIL_CONVERTER;
+        case Types.JAVA_OBJECT:
+        case Types.OTHER:
+            return this::objectToRuby;
+        default:
+            return this::stringToRuby;
+        }
+    }
+
+    private boolean isParallelConvertible(final ColumnData[] columns) {
+        for (final ColumnData column : columns) {
+            if (!isParallelConvertible(column)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Whether a column's values might be buffered (as raw JDBC values) and
+     * converted to Ruby on another thread, see {@link arjdbc.util.BufferedResultSet}.
+     * Results are only converted in parallel when all columns are supported,
+     * types whose conversion is customized (reading values differently) should return false.
+     * @param column the column data
+     * @return true if values can be converted off the result set
+     */
+    protected boolean isParallelConvertible(final ColumnData column) {
+        switch (column.type) {
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return rawBoolean == null || !rawBoolean;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.DATE:
+            case Types.TIME:
+            case Types.TIMESTAMP:
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isLazyLob(final int type) {
+        switch (type) {
+            case Types.BLOB:
+            case Types.LONGVARBINARY:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private boolean isLazyLobReadable(final ResultSet resultSet) throws SQLException {
+        if (isLobReadableAfterClose()) return true;
+        final Statement statement = resultSet.getStatement();
+        return statement != null && !statement.getConnection().getAutoCommit();
     }
 
-    private static String[] getTypes(final IRubyObject typeArg) {
-        if ( typeArg instanceof RubyArray ) {
-            final RubyArray typesArr = (RubyArray) typeArg;
-            final String[] types = new String[typesArr.size()];
-            for ( int i = 0; i < types.length; i++ ) {
-                types[i] = typesArr.eltInternal(i).toString();
-            }
-            return types;
+    private ColumnConverter lazyLobConverter(final int type) {
+        if (type == Types.CLOB || type == Types.NCLOB) {
+            return (context, runtime, resultSet, column) -> {
+                final Clob value = resultSet.getClob(column);
+                return value == null ? context.nil : new LobHandle(context, this, value);
+            };
         }
-        return new String[] { typeArg.toString() }; // expect a RubyString
+        return (context, runtime, resultSet, column) -> {
+            final Blob value = resultSet.getBlob(column);
+            return value == null ? context.nil : new LobHandle(context, this, value);
+        };
     }
 
     /**
-     * Maps a query result into a <code>ActiveRecord</code> result.
-     * @param context
-     * @param connection
-     * @param resultSet
-     * @param columns
-     * @return expected to return a <code>ActiveRecord::Result</code>
-     * @throws SQLException
+     * Whether a backslash escapes (the next character) in string literals, as
+     * needed to find the end of literals when extracting table names.
+     * @return false by default (standard SQL)
+     * @see SqlTableNames
      */
-    protected IRubyObject mapToResult(final ThreadContext context, final Connection connection,
-                                      final ResultSet resultSet, final ColumnData[] columns) throws SQLException {
-        final Ruby runtime = context.runtime;
-
-        final RubyArray resultRows = runtime.newArray();
+    protected boolean isBackslashEscapes() {
+        return false;
+    }
 
-        while (resultSet.next()) {
-            resultRows.append(mapRow(context, runtime, columns, resultSet, this));
-        }
+    /**
+     * Whether LOB values (as returned by the driver) remain readable once the
+     * result set (and statement) is closed outside of a transaction.
+     * Lazy LOB handles are only used in transactions unless this returns true.
+     * @return false by default
+     */
+    protected boolean isLobReadableAfterClose() {
+        return false;
+    }
 
-        return newResult(context, columns, resultRows);
+    /**
+     * How a column's values are to be buffered with columnar results, types
+     * whose conversion is customized should return {@link ColumnarResult#OBJECT}.
+     * @param column the column data
+     * @return a buffer type constant from {@link ColumnarResult}
+     * @see #jdbcToRuby(ThreadContext, Ruby, int, int, ResultSet)
+     */
+    protected int columnarBufferType(final ColumnData column) {
+        return ColumnarResult.defaultBufferType(column.type);
     }
 
     protected IRubyObject jdbcToRuby(
@@ -1932,13 +3385,14 @@ public class RubyJdbcConnection extends RubyObject {
         try {
             switch (type) {
             case Types.BLOB:
+                return blobToRuby(context, runtime, resultSet, column);
             case Types.BINARY:
             case Types.VARBINARY:
             case Types.LONGVARBINARY:
                 return streamToRuby(context, runtime, resultSet, column);
             case Types.CLOB:
             case Types.NCLOB: // JDBC 4.0
-                return readerToRuby(context, runtime, resultSet, column);
+                return clobToRuby(context, runtime, resultSet, column);
             case Types.LONGVARCHAR:
             case Types.LONGNVARCHAR: // JDBC 4.0
                 return readerToRuby(context, runtime, resultSet, column);
@@ -2061,9 +3515,24 @@ public class RubyJdbcConnection extends RubyObject {
 
     protected IRubyObject decimalToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column) throws SQLException {
+        return decimalToRuby(context, runtime, resultSet, column, runtime.getClass("BigDecimal"));
+    }
+
+    /**
+     * @param context
+     * @param runtime
+     * @param resultSet
+     * @param column
+     * @param bigDecimal the BigDecimal class (resolved once per result set)
+     * @return the value
+     * @throws SQLException
+     */
+    protected IRubyObject decimalToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column,
+        final RubyClass bigDecimal) throws SQLException {
         final BigDecimal value = resultSet.getBigDecimal(column);
         if ( value == null ) return context.nil;
-        return new org.jruby.ext.bigdecimal.RubyBigDecimal(runtime, value);
+        return new RubyBigDecimal(runtime, bigDecimal, value);
     }
 
     protected static Boolean rawDateTime;
@@ -2107,7 +3576,7 @@ public class RubyJdbcConnection extends RubyObject {
             return RubyString.newString(runtime, DateTimeUtils.dateToString(value));
         }
 
-        return DateTimeUtils.newDateAsTime(context, value, null).callMethod(context, "to_date");
+        return DateTimeUtils.newDateAsDate(context, value, null);
     }
 
     protected IRubyObject timeToRuby(final ThreadContext context,
@@ -2129,6 +3598,22 @@ public class RubyJdbcConnection extends RubyObject {
     protected IRubyObject timestampToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
         throws SQLException {
+        return timestampToRuby(context, runtime, resultSet, column, getDefaultTimeZone(context));
+    }
+
+    /**
+     * Converts a timestamp column value into a Ruby time (in the default zone).
+     * @param context current thread context
+     * @param runtime the ruby runtime
+     * @param resultSet the jdbc result set to pull the value from
+     * @param column the index of the column to convert
+     * @param defaultZone the (AR) default time zone, resolved once per result set
+     * @return RubyNil if NULL or RubyTime if there is a value
+     * @throws SQLException if it failes to retrieve the value from the result set
+     */
+    protected IRubyObject timestampToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column,
+        final DateTimeZone defaultZone) throws SQLException {
 
         final Timestamp value = resultSet.getTimestamp(column);
         if ( value == null ) {
@@ -2144,7 +3629,7 @@ public class RubyJdbcConnection extends RubyObject {
         // yet for custom SELECTs to work (SELECT created_at ... ) and for compatibility we
         // should be returning Time (by default) - AR does this by adjusting mysql2/pg returns
 
-        return DateTimeUtils.newTime(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.newTime(context, value, defaultZone);
     }
 
     protected static Boolean rawBoolean;
@@ -2202,6 +3687,15 @@ public class RubyJdbcConnection extends RubyObject {
 
     protected static int streamBufferSize = 1024;
 
+    private int bufferSize = streamBufferSize; // stream_buffer_size
+
+    /**
+     * @return the (initial) buffer size used to read streams of unknown length
+     */
+    protected int getStreamBufferSize() {
+        return bufferSize;
+    }
+
     protected IRubyObject streamToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
         throws SQLException, IOException {
@@ -2211,7 +3705,7 @@ public class RubyJdbcConnection extends RubyObject {
 
         try {
 
-            final int buffSize = streamBufferSize;
+            final int buffSize = getStreamBufferSize();
             final ByteList bytes = new ByteList(buffSize);
 
             readBytes(bytes, stream, buffSize);
@@ -2223,6 +3717,84 @@ public class RubyJdbcConnection extends RubyObject {
         }
     }
 
+    /**
+     * Converts a BLOB column into a Ruby (binary) string, the blob's length is
+     * known up-front thus bytes are read (and wrapped) without re-allocations.
+     * @param context current thread context
+     * @param runtime the ruby runtime
+     * @param resultSet the jdbc result set to pull the value from
+     * @param column the index of the column to convert
+     * @return RubyNil if NULL or RubyString if there is a value
+     * @throws SQLException if it failes to retrieve the value from the result set
+     */
+    protected IRubyObject blobToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column)
+        throws SQLException {
+        final Blob value = resultSet.getBlob(column);
+
+        if (value == null) return context.nil;
+
+        try {
+            final byte[] bytes = value.getBytes(1, lobLength(value.length()));
+            return newString(runtime, bytes);
+        }
+        finally { free(value); }
+    }
+
+    /**
+     * Converts a CLOB column into a Ruby string, characters are read into an
+     * exactly sized buffer (the clob's length) and encoded without an
+     * intermediate (Java) string.
+     * @param context current thread context
+     * @param runtime the ruby runtime
+     * @param resultSet the jdbc result set to pull the value from
+     * @param column the index of the column to convert
+     * @return RubyNil if NULL or RubyString if there is a value
+     * @throws SQLException if it failes to retrieve the value from the result set
+     */
+    protected IRubyObject clobToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column)
+        throws SQLException, IOException {
+        final Clob value = resultSet.getClob(column);
+
+        if (value == null) return context.nil;
+
+        try {
+            final char[] chars = new char[lobLength(value.length())];
+            int len = 0;
+            final Reader reader = value.getCharacterStream();
+            try {
+                while ( len < chars.length ) {
+                    final int n = reader.read(chars, len, chars.length - len);
+                    if ( n == -1 ) break;
+                    len += n;
+                }
+            }
+            finally { reader.close(); }
+
+            return newDefaultInternalString(runtime, chars, 0, len);
+        }
+        finally { free(value); }
+    }
+
+    // NOTE: free() is JDBC 4.0, older drivers (e.g. jTDS) throw AbstractMethodError
+    private static void free(final Blob value) throws SQLException {
+        try { value.free(); }
+        catch (AbstractMethodError|SQLFeatureNotSupportedException e) { /* JDBC 3.0 driver */ }
+    }
+
+    private static void free(final Clob value) throws SQLException {
+        try { value.free(); }
+        catch (AbstractMethodError|SQLFeatureNotSupportedException e) { /* JDBC 3.0 driver */ }
+    }
+
+    private static int lobLength(final long length) throws SQLException {
+        if ( length > Integer.MAX_VALUE ) {
+            throw new SQLException("LOB value of " + length + " too large to be read (in memory)");
+        }
+        return (int) length;
+    }
+
     /**
      * Converts a column that is handled as a Reader object into a Ruby string
      * @param context current thread context
@@ -2239,15 +3811,13 @@ public class RubyJdbcConnection extends RubyObject {
         try {
             if ( reader == null ) return context.nil;
 
-            final int bufSize = streamBufferSize;
-            final StringBuilder string = new StringBuilder(bufSize);
-
-            final char[] buf = new char[bufSize];
-            for (int len = reader.read(buf); len != -1; len = reader.read(buf)) {
-                string.append(buf, 0, len);
+            char[] buf = new char[getStreamBufferSize()]; int len = 0;
+            for (int n; (n = reader.read(buf, len, buf.length - len)) != -1; ) {
+                len += n;
+                if ( len == buf.length ) buf = Arrays.copyOf(buf, len << 1);
             }
 
-            return newDefaultInternalString(runtime, string);
+            return newDefaultInternalString(runtime, buf, 0, len);
         }
         finally { if ( reader != null ) reader.close(); }
     }
@@ -2279,9 +3849,6 @@ public class RubyJdbcConnection extends RubyObject {
         try {
             if ( value == null ) return context.nil;
 
-            final RubyArray array = runtime.newArray();
-
-            final ResultSet arrayResult = value.getResultSet(); // 1: index, 2: value
             final int baseType = value.getBaseType();
 
             if (baseType == Types.OTHER) {
@@ -2299,6 +3866,14 @@ public class RubyJdbcConnection extends RubyObject {
                 return stringToRuby(context, runtime, resultSet, column);
             }
 
+            if ( isBulkArrayType(baseType) ) { // avoid a (nested) result set per value
+                final IRubyObject array = javaArrayToRuby(context, runtime, value.getArray(), baseType);
+                if ( array != null ) return array;
+            }
+
+            final RubyArray array = runtime.newArray();
+
+            final ResultSet arrayResult = value.getResultSet(); // 1: index, 2: value
             while ( arrayResult.next() ) {
                 array.append( jdbcToRuby(context, runtime, 2, baseType, arrayResult) );
             }
@@ -2309,6 +3884,142 @@ public class RubyJdbcConnection extends RubyObject {
         finally { if ( value != null ) value.free(); }
     }
 
+    /**
+     * Whether array values of the given (base) type might be converted straight
+     * from {@link Array#getArray()}, elements convert the same way as (scalar)
+     * column values of the type would.
+     * @param baseType
+     * @return true for simple numeric and string types
+     * @see #javaArrayToRuby(ThreadContext, Ruby, Object, int)
+     */
+    protected boolean isBulkArrayType(final int baseType) {
+        switch (baseType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                return true;
+            case Types.BOOLEAN:
+                return rawBoolean == null || !rawBoolean;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Converts a (Java) array as returned by {@link Array#getArray()} into a
+     * Ruby array, nested arrays (multi-dimensional) are converted as well.
+     * @param context
+     * @param runtime
+     * @param array an Object[] (with boxed values) or a primitive array
+     * @param baseType the array's base type
+     * @return the Ruby array or null if a value could not be converted directly
+     */
+    protected IRubyObject javaArrayToRuby(final ThreadContext context, final Ruby runtime,
+        final Object array, final int baseType) {
+        final IRubyObject[] elements;
+        if ( array instanceof Object[] ) {
+            final Object[] values = (Object[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) {
+                final IRubyObject element = javaArrayValueToRuby(context, runtime, values[i], baseType);
+                if ( element == null ) return null;
+                elements[i] = element;
+            }
+        }
+        else if ( array instanceof int[] ) {
+            final int[] values = (int[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newFixnum(values[i]);
+        }
+        else if ( array instanceof long[] ) {
+            final long[] values = (long[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newFixnum(values[i]);
+        }
+        else if ( array instanceof short[] ) {
+            final short[] values = (short[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newFixnum(values[i]);
+        }
+        else if ( array instanceof double[] ) {
+            final double[] values = (double[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newFloat(values[i]);
+        }
+        else if ( array instanceof float[] ) {
+            final float[] values = (float[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newFloat(floatToDouble(values[i]));
+        }
+        else if ( array instanceof boolean[] ) {
+            final boolean[] values = (boolean[]) array;
+            elements = new IRubyObject[values.length];
+            for ( int i = 0; i < values.length; i++ ) elements[i] = runtime.newBoolean(values[i]);
+        }
+        else {
+            return null;
+        }
+        return RubyArray.newArrayNoCopy(runtime, elements);
+    }
+
+    private IRubyObject javaArrayValueToRuby(final ThreadContext context, final Ruby runtime,
+        final Object value, final int baseType) {
+        if ( value == null ) return context.nil;
+        if ( value.getClass().isArray() ) { // multi-dimensional
+            return javaArrayToRuby(context, runtime, value, baseType);
+        }
+        switch (baseType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                if ( value instanceof Integer || value instanceof Long ||
+                     value instanceof Short || value instanceof Byte ) {
+                    return runtime.newFixnum(((Number) value).longValue());
+                }
+                break;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                if ( value instanceof Double ) return runtime.newFloat((Double) value);
+                if ( value instanceof Float ) return runtime.newFloat(floatToDouble((Float) value));
+                break;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                if ( value instanceof BigDecimal ) return new RubyBigDecimal(runtime, (BigDecimal) value);
+                break;
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.LONGNVARCHAR:
+                if ( value instanceof String ) return newDefaultInternalString(runtime, (String) value);
+                break;
+            case Types.BOOLEAN:
+                if ( value instanceof Boolean ) return runtime.newBoolean((Boolean) value);
+                break;
+        }
+        return null;
+    }
+
+    // same as a getDouble on a REAL column would return (1.1f -> 1.1 not 1.100000023841858)
+    private static double floatToDouble(final float value) {
+        return Double.parseDouble(Float.toString(value));
+    }
+
     /**
      * Converts an XML column into a Ruby string
      * @param context current thread context
@@ -2339,6 +4050,62 @@ public class RubyJdbcConnection extends RubyObject {
         }
     }
 
+    private static final int BIND_PLAN_LIMIT = SafePropertyAccessor.getInt("arjdbc.bind_plans.size", 256);
+
+    private BindPlan.Cache bindPlans;
+
+    /**
+     * Sets statement parameters using a (cached) bind plan for the given SQL.
+     * The JDBC type for each position is only resolved once for the same SQL
+     * and (bound) attribute types, repeated executions skip the type dispatch.
+     * @param context
+     * @param connection
+     * @param statement
+     * @param binds
+     * @param sql the statement's SQL (plan key) or null to not use a plan
+     * @throws SQLException
+     */
+    protected void setStatementParameters(final ThreadContext context,
+        final Connection connection, final PreparedStatement statement,
+        final RubyArray binds, final String sql) throws SQLException {
+
+        if ( sql == null || BIND_PLAN_LIMIT <= 0 || binds.isEmpty() ) {
+            setStatementParameters(context, connection, statement, binds); return;
+        }
+
+        final BindPlan plan = bindPlan(context, sql, binds);
+        final int[] jdbcTypes = plan.jdbcTypes;
+        for ( int i = 0; i < jdbcTypes.length; i++ ) {
+            final IRubyObject attribute = binds.eltInternal(i);
+            final int type = jdbcTypes[i];
+            setStatementParameter(context, connection, statement, i + 1, attribute,
+                type == BindPlan.UNRESOLVED ? jdbcTypeForAttribute(context, attribute) : type);
+        }
+    }
+
+    private BindPlan bindPlan(final ThreadContext context, final String sql, final RubyArray binds) throws SQLException {
+        BindPlan plan;
+        synchronized (this) {
+            if ( bindPlans == null ) bindPlans = new BindPlan.Cache(BIND_PLAN_LIMIT);
+            plan = bindPlans.get(sql);
+        }
+        if ( plan != null && plan.matches(binds) ) return plan;
+
+        final int size = binds.getLength();
+        final IRubyObject[] types = new IRubyObject[size];
+        final int[] jdbcTypes = new int[size];
+        for ( int i = 0; i < size; i++ ) {
+            final IRubyObject attribute = binds.eltInternal(i);
+            types[i] = BindPlan.attributeType(attribute);
+            // generic (nil) SQL types get resolved based on the value
+            jdbcTypes[i] = attributeSQLType(context, attribute) == context.nil ?
+                BindPlan.UNRESOLVED : jdbcTypeForAttribute(context, attribute);
+        }
+        plan = new BindPlan(types, jdbcTypes);
+        synchronized (this) { bindPlans.put(sql, plan); }
+        return plan;
+    }
+
     // Set the prepared statement attributes based on the passed in Attribute object
     protected void setStatementParameter(final ThreadContext context,
             final Connection connection, final PreparedStatement statement,
@@ -2346,6 +4113,23 @@ public class RubyJdbcConnection extends RubyObject {
 
         //debugMessage(context, attribute);
         final int type = jdbcTypeForAttribute(context, attribute);
+        setStatementParameter(context, connection, statement, index, attribute, type);
+    }
+
+    /**
+     * Sets a statement parameter (with an already resolved JDBC type).
+     * @param context
+     * @param connection
+     * @param statement
+     * @param index
+     * @param attribute
+     * @param type the JDBC type
+     * @throws SQLException
+     */
+    protected void setStatementParameter(final ThreadContext context,
+            final Connection connection, final PreparedStatement statement,
+            final int index, IRubyObject attribute, final int type) throws SQLException {
+
         IRubyObject value = valueForDatabase(context, attribute);
 
         // All the set methods were calling this first so save a method call in the nil case
@@ -2609,14 +4393,18 @@ public class RubyJdbcConnection extends RubyObject {
             statement.setBigDecimal(index, ((RubyBigDecimal) value).getValue());
         }
         else if ( value instanceof RubyInteger ) {
-            statement.setBigDecimal(index, new BigDecimal(((RubyInteger) value).getBigIntegerValue()));
+            statement.setBigDecimal(index, DecimalHelper.toBigDecimal((RubyInteger) value));
         }
         else if ( value instanceof RubyNumeric ) {
             statement.setDouble(index, ((RubyNumeric) value).getDoubleValue());
         }
-        else { // e.g. `BigDecimal '42.00000000000000000001'`
-            statement.setBigDecimal(index,
+        else {
+            final BigDecimal decimal = value instanceof RubyString ? DecimalHelper.parsePlainDecimal(value.toString()) : null;
+            if ( decimal != null ) statement.setBigDecimal(index, decimal);
+            else { // e.g. `BigDecimal '42.00000000000000000001'`
+                statement.setBigDecimal(index,
                     RubyBigDecimal.newInstance(context, context.runtime.getModule("BigDecimal"), value).getValue());
+            }
         }
     }
 
@@ -2704,11 +4492,33 @@ public class RubyJdbcConnection extends RubyObject {
         final IRubyObject attribute, final int type) throws SQLException {
 
         final String typeName = resolveArrayBaseTypeName(context, attribute);
-        final IRubyObject valueForDB = value.callMethod(context, "values");
-        Array array = connection.createArrayOf(typeName, ((RubyArray) valueForDB).toArray());
+        final Object[] values;
+        if ( value instanceof ArrayJavaProxy ) { // a packed Java array e.g. `[1, 2].to_java(:int)`
+            values = toObjectArray(((ArrayJavaProxy) value).getObject());
+        }
+        else {
+            final IRubyObject valueForDB = value.callMethod(context, "values");
+            values = ((RubyArray) valueForDB).toArray();
+        }
+        Array array = connection.createArrayOf(typeName, values);
         statement.setArray(index, array);
     }
 
+    /**
+     * @param array a (Java) array, possibly of primitives
+     * @return the array with (nested) values boxed, as expected by {@link Connection#createArrayOf(String, Object[])}
+     */
+    protected static Object[] toObjectArray(final Object array) {
+        final int length = java.lang.reflect.Array.getLength(array);
+        final Object[] values = new Object[length];
+        final boolean nested = array.getClass().getComponentType().isArray();
+        for ( int i = 0; i < length; i++ ) {
+            final Object value = java.lang.reflect.Array.get(array, i); // boxes primitives
+            values[i] = nested && value != null ? toObjectArray(value) : value;
+        }
+        return values;
+    }
+
     protected String resolveArrayBaseTypeName(final ThreadContext context, final IRubyObject attribute) throws SQLException {
 
         // This shouldn't return nil at this point because we know we have an array typed attribute
@@ -2823,6 +4633,9 @@ public class RubyJdbcConnection extends RubyObject {
     }
 
     private void setConnection(final Connection connection) {
+        if ( statementCache != null ) statementCache.clear(); // statements belong to the previous connection
+        discardDeferredWrites(); // (transaction) writes are lost with the connection
+        resultCachePending = null;
         close( getConnectionImpl() ); // close previously open connection if there is one
         dataWrapStruct(connection);
         if ( connection != null ) logDriverUsed(connection);
@@ -3145,8 +4958,10 @@ public class RubyJdbcConnection extends RubyObject {
         final RubyArray results = runtime.newArray();
         // [ { 'col1': 1, 'col2': 2 }, { 'col1': 3, 'col2': 4 } ]
 
+        final ColumnConverter[] converters = columnConverters(context, resultSet, columns);
+        final RowHashKeys keys = rowHashKeys(context, columns);
         while ( resultSet.next() ) {
-            results.append(mapRawRow(context, runtime, columns, resultSet, this));
+            results.append(mapRawRow(context, runtime, columns, converters, keys, resultSet));
         }
         return results;
     }
@@ -3158,11 +4973,11 @@ public class RubyJdbcConnection extends RubyObject {
         final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
 
         final Ruby runtime = context.runtime;
+        final ColumnConverter[] converters = columnConverters(context, resultSet, columns);
         final IRubyObject[] blockArgs = new IRubyObject[columns.length];
         while ( resultSet.next() ) {
             for ( int i = 0; i < columns.length; i++ ) {
-                final ColumnData column = columns[i];
-                blockArgs[i] = jdbcToRuby(context, runtime, column.index, column.type, resultSet);
+                blockArgs[i] = converters[i].convert(context, runtime, resultSet, columns[i].index);
             }
             block.call( context, blockArgs );
         }
@@ -3170,6 +4985,42 @@ public class RubyJdbcConnection extends RubyObject {
         return context.nil; // yielded result rows
     }
 
+    private IRubyObject yieldResultSlices(final ThreadContext context,
+            final Connection connection, final ResultSet resultSet,
+            final Block block, final int sliceSize, final boolean reuseRows) throws SQLException {
+
+        final ColumnData[] columns = extractColumns(context, connection, resultSet, false);
+
+        final Ruby runtime = context.runtime;
+        final ColumnConverter[] converters = columnConverters(context, resultSet, columns);
+        RubyArray slice = runtime.newArray(sliceSize); int size = 0;
+        while ( resultSet.next() ) {
+            if ( reuseRows && size < slice.size() ) { // overwrite the previous slice's row
+                final RubyArray row = (RubyArray) slice.eltInternal(size);
+                for ( int i = 0; i < columns.length; i++ ) {
+                    row.store(i, converters[i].convert(context, runtime, resultSet, columns[i].index));
+                }
+            }
+            else {
+                final IRubyObject[] row = new IRubyObject[columns.length];
+                for ( int i = 0; i < columns.length; i++ ) {
+                    row[i] = converters[i].convert(context, runtime, resultSet, columns[i].index);
+                }
+                slice.append( RubyArray.newArrayNoCopy(runtime, row) );
+            }
+            if ( ++size == sliceSize ) {
+                block.call( context, slice );
+                if ( ! reuseRows ) slice = runtime.newArray(sliceSize);
+                size = 0;
+            }
+        }
+        if ( size > 0 ) { // last (partial) slice
+            block.call( context, reuseRows ? slice.subseq(0, size) : slice );
+        }
+
+        return context.nil; // yielded result rows
+    }
+
     /**
      * Extract columns from result set.
      * @param context
@@ -3222,13 +5073,19 @@ public class RubyJdbcConnection extends RubyObject {
                 }
                 gotConnection = true;
                 autoCommit = connection.getAutoCommit();
-                return block.call(connection);
+                final DeferredWrites deferredWrites = this.deferredWrites;
+                if ( deferredWrites != null && ! deferredWrites.isEmpty() ) {
+                    flushDeferredWrites(context, connection); // before reads (or any other statement)
+                }
+                return callCancellable(context, connection, block);
             }
             catch (final Exception e) { // SQLException or RuntimeException
                 exception = e;
 
                 if ( i == 0 ) retry = 1;
 
+                if ( statementCancelled ) break; // timed-out or interrupted (never retry)
+
                 if ( ! gotConnection ) { // SQLException from driver/data-source
                     reconnectOnRetry = connected;
                 }
@@ -3431,21 +5288,37 @@ public class RubyJdbcConnection extends RubyObject {
         return RubyArray.newArrayNoCopy(context.runtime, row);
     }
 
+    // maps a AR::Result row using (resolved) column converters
+    protected static IRubyObject mapRow(final ThreadContext context, final Ruby runtime,
+        final ColumnData[] columns, final ColumnConverter[] converters,
+        final ResultSet resultSet) throws SQLException {
+
+        final IRubyObject[] row = new IRubyObject[columns.length];
+
+        for (int i = 0; i < columns.length; i++) {
+            row[i] = converters[i].convert(context, runtime, resultSet, columns[i].index);
+        }
+
+        return RubyArray.newArrayNoCopy(runtime, row);
+    }
+
     private static IRubyObject mapRawRow(final ThreadContext context, final Ruby runtime,
-        final ColumnData[] columns, final ResultSet resultSet,
-        final RubyJdbcConnection connection) throws SQLException {
+        final ColumnData[] columns, final ColumnConverter[] converters,
+        final RowHashKeys keys, final ResultSet resultSet) throws SQLException {
 
-        final RubyHash row = new RubyHash(runtime, columns.length);
+        final IRubyObject[] values = new IRubyObject[columns.length];
 
         for ( int i = 0; i < columns.length; i++ ) {
-            final ColumnData column = columns[i];
-            // NOTE: we know keys are always String so maybe we could take it even further ?!
-            row.fastASetCheckString(runtime, column.getName(context),
-                connection.jdbcToRuby(context, runtime, column.index, column.type, resultSet)
-            );
+            values[i] = converters[i].convert(context, runtime, resultSet, columns[i].index);
         }
 
-        return row;
+        return keys.newRow(runtime, values);
+    }
+
+    private static RowHashKeys rowHashKeys(final ThreadContext context, final ColumnData[] columns) {
+        final RubyString[] names = new RubyString[columns.length];
+        for ( int i = 0; i < columns.length; i++ ) names[i] = columns[i].getName(context);
+        return new RowHashKeys(context.runtime, names);
     }
 
     protected static IRubyObject newResult(final ThreadContext context, ColumnData[] columns, IRubyObject rows) {
@@ -3548,8 +5421,10 @@ public class RubyJdbcConnection extends RubyObject {
         return extractTableName(connection, null, schema, tableName);
     }
 
+    private final CachingCallSite value_for_database_site = new FunctionalCachingCallSite("value_for_database");
+
     protected IRubyObject valueForDatabase(final ThreadContext context, final IRubyObject attribute) {
-        return attribute.callMethod(context, "value_for_database");
+        return value_for_database_site.call(context, attribute, attribute);
     }
 
     // FIXME: This should not be static and will be exposed via api in connection as instance method.
@@ -0,0 +1,328 @@
+package arjdbc.jdbc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A (light-weight) SQL scanner extracting the names of tables a statement
+ * reads from or writes to, as needed for result cache invalidation.
+ *
+ * This is not a SQL parser, names are found following keywords (FROM, JOIN,
+ * INSERT INTO, UPDATE etc.) outside of literals and comments. Table names are
+ * normalized to lower-case and without schema and quotes, thus matching is
+ * rather conservative (a write might invalidate more than necessary).
+ * Reads are also conservatively considered cacheable: not when locking or
+ * using volatile values or calling any but (known) side-effect free functions.
+ *
+ * @see QueryResultCache
+ */
+final class SqlTableNames {
+
+    private static final String[] NO_TABLES = new String[0];
+
+    // words that might follow a table name (when no alias is used)
+    private static final Set<String> NON_ALIAS = new HashSet<>(Arrays.asList(
+        "where", "join", "inner", "left", "right", "full", "outer", "cross", "natural", "on", "using",
+        "group", "order", "limit", "offset", "having", "union", "except", "intersect", "minus", "for",
+        "window", "fetch", "straight_join", "set", "values", "select", "returning", "with", "lateral"
+    ));
+
+    // locking clauses and (value) keywords whose results are not to be re-used
+    private static final Set<String> NON_CACHEABLE = new HashSet<>(Arrays.asList(
+        "for", "into", // SELECT ... FOR UPDATE, SELECT ... INTO
+        "lock", "updlock", "holdlock", "xlock", "rowlock", "tablockx", // LOCK IN SHARE MODE, WITH (UPDLOCK)
+        "current_timestamp", "current_time", "current_date", "localtimestamp", "localtime",
+        "sysdate", "systimestamp"
+    ));
+
+    // words followed by a '(' that are not function calls
+    private static final Set<String> NON_FUNCTION = new HashSet<>(Arrays.asList(
+        "in", "exists", "from", "join", "on", "and", "or", "not", "any", "all", "some", "over", "filter",
+        "using", "values", "select", "where", "when", "then", "else", "having", "as", "union", "except",
+        "intersect", "minus", "with", "lateral", "is", "like", "between", "by", "distinct", "limit",
+        "offset", "array", "row", "group", "case", "end", "escape", "similar",
+        "char", "character", "varchar", "nvarchar", "varying", "decimal", "numeric", "float", // CAST(x AS type(n))
+        "timestamp", "time", "binary", "varbinary", "bit"
+    ));
+
+    // (deterministic and side-effect free) functions, calling any other
+    // function (nextval, random, now or a user function) is not cacheable
+    private static final Set<String> CACHEABLE_FUNCTIONS = new HashSet<>(Arrays.asList(
+        "count", "sum", "min", "max", "avg", "stddev", "variance", "every", "bool_and", "bool_or",
+        "string_agg", "group_concat", "array_agg", "json_agg", "listagg",
+        "row_number", "rank", "dense_rank", "lag", "lead", "first_value", "last_value",
+        "coalesce", "nullif", "ifnull", "isnull", "nvl", "greatest", "least", "if", "iif", "decode",
+        "cast", "convert", "extract", "lower", "upper", "lcase", "ucase", "length", "char_length",
+        "character_length", "octet_length", "substr", "substring", "trim", "ltrim", "rtrim", "replace",
+        "concat", "concat_ws", "position", "instr", "locate", "left", "right", "lpad", "rpad",
+        "abs", "round", "floor", "ceil", "ceiling", "mod", "power", "sqrt", "sign", "trunc", "exp", "ln",
+        "date", "year", "month", "day", "hour", "minute", "second", "date_trunc", "date_part",
+        "to_char", "to_date", "to_number", "to_timestamp", "strftime"
+    ));
+
+    final String sql; // normalized
+    final boolean read; // SELECT (or WITH) without writes
+    final boolean cacheable;
+    final String[] readTables;
+    final String[] writeTables; // null if unknown (anything might have been written)
+
+    private SqlTableNames(final String sql, final boolean read, final boolean cacheable,
+        final String[] readTables, final String[] writeTables) {
+        this.sql = sql;
+        this.read = read;
+        this.cacheable = cacheable;
+        this.readTables = readTables;
+        this.writeTables = writeTables;
+    }
+
+    /**
+     * @param sql
+     * @param backslashEscapes whether a backslash escapes in (all) literals (MySQL)
+     * @return table names
+     */
+    static SqlTableNames parse(final String sql, final boolean backslashEscapes) {
+        final StringBuilder normalized = new StringBuilder(sql.length());
+        final List<String> tokens = tokenize(sql, normalized, backslashEscapes);
+        if ( tokens.isEmpty() ) return new SqlTableNames(sql, false, false, NO_TABLES, null);
+
+        final String first = tokens.get(0);
+        final Set<String> writes = writeTables(tokens);
+        switch (first) {
+            case "select":
+            case "with":
+            case "(":
+                if ( writes.isEmpty() ) {
+                    final Set<String> reads = readTables(tokens);
+                    final boolean cacheable = ! reads.isEmpty() && isCacheable(tokens);
+                    return new SqlTableNames(normalized.toString(), true, cacheable, toArray(reads), NO_TABLES);
+                }
+                return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, toArray(writes));
+            case "show":
+            case "explain":
+            case "describe":
+            case "set":
+            case "begin":
+            case "start":
+            case "commit":
+            case "rollback":
+            case "savepoint":
+            case "release":
+                return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, NO_TABLES);
+            case "copy": // COPY table [ (columns) ] FROM/TO (PostgreSQL)
+                if ( tokens.size() > 1 && isIdentifier(tokens.get(1)) ) {
+                    for ( int i = 2; i < tokens.size(); i++ ) {
+                        final String token = tokens.get(i);
+                        if ( "from".equals(token) ) {
+                            return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, new String[] { tokens.get(1) });
+                        }
+                        if ( "to".equals(token) ) break;
+                    }
+                }
+                return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, NO_TABLES);
+            case "insert":
+            case "update":
+            case "delete":
+            case "merge":
+            case "replace":
+            case "truncate":
+                if ( ! writes.isEmpty() ) {
+                    return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, toArray(writes));
+                }
+                // fall-through
+            default: // DDL, CALL etc. - might have changed anything
+                return new SqlTableNames(normalized.toString(), false, false, NO_TABLES, null);
+        }
+    }
+
+    // whether a read might be served (again) from a cache: no locking, no
+    // volatile values (sequences, current time, random) and no (user) functions
+    private static boolean isCacheable(final List<String> tokens) {
+        for ( int i = 0; i < tokens.size(); i++ ) {
+            final String token = tokens.get(i);
+            if ( NON_CACHEABLE.contains(token) ) return false;
+            if ( "next".equals(token) && i + 1 < tokens.size() && "value".equals(tokens.get(i + 1)) ) {
+                return false; // NEXT VALUE FOR sequence
+            }
+            if ( i + 1 < tokens.size() && "(".equals(tokens.get(i + 1)) && isIdentifier(token) ) {
+                if ( ! NON_FUNCTION.contains(token) && ! CACHEABLE_FUNCTIONS.contains(token) ) return false;
+            }
+        }
+        return true;
+    }
+
+    private static String[] toArray(final Set<String> tables) {
+        return tables.isEmpty() ? NO_TABLES : tables.toArray(new String[tables.size()]);
+    }
+
+    private static Set<String> readTables(final List<String> tokens) {
+        final Set<String> tables = new LinkedHashSet<>(4);
+        for ( int i = 0; i < tokens.size(); i++ ) {
+            final String token = tokens.get(i);
+            if ( ! "from".equals(token) && ! "join".equals(token) ) continue;
+            int j = i + 1;
+            while ( j < tokens.size() ) {
+                final String name = tokens.get(j++);
+                if ( ! isIdentifier(name) ) break; // e.g. a sub-query
+                tables.add(name);
+                if ( j < tokens.size() && "as".equals(tokens.get(j)) ) j += 2; // alias
+                else if ( j < tokens.size() && isIdentifier(tokens.get(j)) && ! NON_ALIAS.contains(tokens.get(j)) ) j++;
+                if ( j < tokens.size() && ",".equals(tokens.get(j)) ) j++; // FROM a, b
+                else break;
+            }
+        }
+        return tables;
+    }
+
+    private static Set<String> writeTables(final List<String> tokens) {
+        final Set<String> tables = new LinkedHashSet<>(2);
+        for ( int i = 0; i < tokens.size(); i++ ) {
+            final String token = tokens.get(i);
+            final String prev = i > 0 ? tokens.get(i - 1) : null;
+            int j = -1; boolean list = false;
+            switch (token) {
+                case "insert":
+                case "merge":
+                case "replace":
+                    j = i + 1;
+                    if ( j < tokens.size() && "into".equals(tokens.get(j)) ) j++;
+                    break;
+                case "update":
+                    // not: SELECT ... FOR UPDATE, ON DUPLICATE KEY UPDATE, ON CONFLICT ... DO UPDATE
+                    if ( "for".equals(prev) || "key".equals(prev) || "do".equals(prev) || "no".equals(prev) ) break;
+                    if ( "on".equals(prev) ) break; // ON UPDATE CASCADE (DDL)
+                    j = i + 1;
+                    break;
+                case "delete":
+                    if ( "on".equals(prev) ) break; // ON DELETE CASCADE (DDL)
+                    j = i + 1;
+                    if ( j < tokens.size() && "from".equals(tokens.get(j)) ) j++;
+                    break;
+                case "truncate":
+                    j = i + 1; list = true;
+                    if ( j < tokens.size() && "table".equals(tokens.get(j)) ) j++;
+                    break;
+            }
+            while ( j >= 0 && j < tokens.size() ) {
+                final String name = tokens.get(j++);
+                if ( ! isIdentifier(name) ) break;
+                tables.add(name);
+                if ( list && j < tokens.size() && ",".equals(tokens.get(j)) ) j++;
+                else break;
+            }
+        }
+        return tables;
+    }
+
+    private static boolean isIdentifier(final String token) {
+        if ( token.isEmpty() ) return false;
+        final char c = token.charAt(0);
+        return Character.isLetter(c) || c == '_' || c == '"';
+    }
+
+    /**
+     * Splits SQL into (lower-cased) words and punctuation, skipping literals
+     * and comments. Qualified names (schema.table) are reduced to the last
+     * part, quoted identifiers are unquoted (prefixed with a '"' marker).
+     * The normalized SQL (white-space collapsed) is appended to the builder.
+     */
+    private static List<String> tokenize(final String sql, final StringBuilder normalized,
+        final boolean backslashEscapes) {
+        final List<String> tokens = new ArrayList<>();
+        final int len = sql.length();
+        boolean space = false;
+        int i = 0;
+        while ( i < len ) {
+            final char c = sql.charAt(i);
+            if ( Character.isWhitespace(c) ) {
+                space = true; i++; continue;
+            }
+            if ( c == '-' && i + 1 < len && sql.charAt(i + 1) == '-' ) { // -- comment
+                while ( i < len && sql.charAt(i) != '\n' ) i++;
+                space = true; continue;
+            }
+            if ( c == '/' && i + 1 < len && sql.charAt(i + 1) == '*' ) { // /* comment */
+                final int end = sql.indexOf("*/", i + 2);
+                i = end == -1 ? len : end + 2;
+                space = true; continue;
+            }
+            if ( space && normalized.length() > 0 ) normalized.append(' ');
+            space = false;
+
+            final int start = i;
+            if ( c == '\'' ) { // 'literal' ('' escapes)
+                final boolean escapes = backslashEscapes || isEscapeStringPrefix(sql, start);
+                i++;
+                while ( i < len ) {
+                    if ( sql.charAt(i) == '\'' ) {
+                        if ( i + 1 < len && sql.charAt(i + 1) == '\'' ) i += 2;
+                        else { i++; break; }
+                    }
+                    else if ( escapes && sql.charAt(i) == '\\' ) i += 2;
+                    else i++;
+                }
+                i = Math.min(i, len);
+                normalized.append(sql, start, i);
+                tokens.add("'");
+                continue;
+            }
+            if ( c == '"' || c == '`' || c == '[' || Character.isLetter(c) || c == '_' ) {
+                String name = null;
+                while ( i < len ) { // name(.name)*
+                    final char q = sql.charAt(i);
+                    if ( q == '"' || q == '`' || q == '[' ) {
+                        final char close = q == '[' ? ']' : q;
+                        final int end = sql.indexOf(close, i + 1);
+                        final int stop = end == -1 ? len : end;
+                        name = '"' + sql.substring(i + 1, stop).toLowerCase(Locale.ENGLISH);
+                        i = Math.min(stop + 1, len);
+                    }
+                    else if ( Character.isLetterOrDigit(q) || q == '_' || q == '$' ) {
+                        final int s = i;
+                        while ( i < len && ( Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_' || sql.charAt(i) == '$' ) ) i++;
+                        name = sql.substring(s, i).toLowerCase(Locale.ENGLISH);
+                    }
+                    else break;
+                    if ( i < len && sql.charAt(i) == '.' ) i++;
+                    else break;
+                }
+                normalized.append(sql, start, i);
+                tokens.add(name == null ? "" : name); // a quoted identifier is never a keyword
+                continue;
+            }
+            if ( Character.isDigit(c) ) {
+                while ( i < len && ( Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.' ) ) i++;
+                normalized.append(sql, start, i);
+                tokens.add("0");
+                continue;
+            }
+            normalized.append(c);
+            tokens.add(String.valueOf(c));
+            i++;
+        }
+        return tokens;
+    }
+
+    // PostgreSQL's E'escape\n string' (backslash escapes are MySQL's default)
+    private static boolean isEscapeStringPrefix(final String sql, final int quote) {
+        if ( quote == 0 ) return false;
+        final char e = sql.charAt(quote - 1);
+        if ( e != 'E' && e != 'e' ) return false;
+        if ( quote == 1 ) return true;
+        final char p = sql.charAt(quote - 2);
+        return ! ( Character.isLetterOrDigit(p) || p == '_' || p == '$' );
+    }
+
+    /**
+     * @param table a table name (as extracted)
+     * @return name without the quoted marker
+     */
+    static String tableKey(final String table) {
+        return table.charAt(0) == '"' ? table.substring(1) : table;
+    }
+
+}
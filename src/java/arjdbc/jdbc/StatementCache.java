@@ -0,0 +1,149 @@
+package arjdbc.jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A (per connection) LRU cache of prepared statements, keyed by SQL and
+ * whether generated keys are to be returned.
+ *
+ * Statements are checked out while in use (removed from the cache) and put
+ * back once done, thus a statement is never shared by (nested) executions.
+ * All statements belong to the connection the cache was last used with, a
+ * different connection (e.g. after a reconnect) clears the cache.
+ *
+ * @see RubyJdbcConnection#statement_limit(org.jruby.runtime.ThreadContext)
+ */
+final class StatementCache {
+
+    private final LinkedHashMap<Key, PreparedStatement> statements;
+    private int limit;
+    private Connection connection;
+
+    long hits, misses, evictions;
+
+    StatementCache(final int limit) {
+        this.limit = limit;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true); // access-order
+    }
+
+    synchronized int getLimit() { return limit; }
+
+    synchronized void setLimit(final int limit) {
+        this.limit = limit;
+        evict();
+    }
+
+    synchronized int size() { return statements.size(); }
+
+    /**
+     * Checks out a (cached) statement or prepares a new one.
+     * @param connection
+     * @param sql
+     * @param generatedKeys
+     * @param fetchSize
+     * @return a prepared statement, to be returned using {@link #release(Connection, String, boolean, PreparedStatement)}
+     * @throws SQLException
+     */
+    PreparedStatement acquire(final Connection connection, final String sql,
+        final boolean generatedKeys, final int fetchSize) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            if ( this.connection != connection ) {
+                clear(); this.connection = connection;
+            }
+            statement = statements.remove(new Key(sql, generatedKeys));
+            if ( statement != null ) hits++; else misses++;
+        }
+        if ( statement != null ) return statement;
+
+        statement = generatedKeys ?
+            connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS) :
+            connection.prepareStatement(sql);
+        if ( fetchSize != 0 ) statement.setFetchSize(fetchSize);
+        return statement;
+    }
+
+    /**
+     * Puts a statement (back) into the cache, closing it if not cacheable.
+     * @param connection
+     * @param sql
+     * @param generatedKeys
+     * @param statement
+     */
+    void release(final Connection connection, final String sql,
+        final boolean generatedKeys, final PreparedStatement statement) {
+        synchronized (this) {
+            if ( this.connection == connection && limit > 0 && isReusable(statement) ) {
+                final Key key = new Key(sql, generatedKeys);
+                if ( ! statements.containsKey(key) ) { // might got checked out twice (nested)
+                    statements.put(key, statement);
+                    evict();
+                    return;
+                }
+            }
+        }
+        RubyJdbcConnection.close(statement);
+    }
+
+    private static boolean isReusable(final PreparedStatement statement) {
+        try {
+            if ( statement.isClosed() ) return false;
+            RubyJdbcConnection.close(statement.getResultSet()); // if left open
+            statement.clearParameters();
+            if ( statement.getMaxRows() != 0 ) statement.setMaxRows(0);
+            return true;
+        }
+        catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // NOTE: expected to be called while holding the lock
+    private void evict() {
+        final Iterator<PreparedStatement> it = statements.values().iterator();
+        int size = statements.size();
+        while ( size-- > limit && it.hasNext() ) {
+            RubyJdbcConnection.close(it.next());
+            it.remove(); evictions++;
+        }
+    }
+
+    synchronized void clear() {
+        for ( final Map.Entry<Key, PreparedStatement> entry : statements.entrySet() ) {
+            RubyJdbcConnection.close(entry.getValue());
+        }
+        statements.clear();
+        connection = null;
+    }
+
+    private static final class Key {
+
+        final String sql;
+        final boolean generatedKeys;
+        private final int hash;
+
+        Key(final String sql, final boolean generatedKeys) {
+            this.sql = sql; this.generatedKeys = generatedKeys;
+            this.hash = generatedKeys ? ~sql.hashCode() : sql.hashCode();
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if ( this == obj ) return true;
+            if ( ! ( obj instanceof Key ) ) return false;
+            final Key that = (Key) obj;
+            return this.generatedKeys == that.generatedKeys && this.sql.equals(that.sql);
+        }
+
+    }
+
+}
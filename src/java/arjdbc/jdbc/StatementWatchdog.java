@@ -0,0 +1,52 @@
+package arjdbc.jdbc;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A (shared) scheduler cancelling statements that run past their deadline.
+ * The driver's query timeout (if supported) works in seconds and might not
+ * be enforced at all, the watchdog makes sure overdue statements get
+ * cancelled (with millisecond precision).
+ *
+ * A single daemon thread is (lazily) started and shared by all connections,
+ * it is also used to close expired (idle) async connections.
+ *
+ * @see RubyJdbcConnection#statement_timeout_ms(org.jruby.runtime.ThreadContext)
+ */
+final class StatementWatchdog {
+
+    private StatementWatchdog() { /* static only */ }
+
+    private static volatile ScheduledThreadPoolExecutor scheduler;
+
+    private static ScheduledThreadPoolExecutor scheduler() {
+        ScheduledThreadPoolExecutor scheduler = StatementWatchdog.scheduler;
+        if ( scheduler == null ) {
+            synchronized (StatementWatchdog.class) {
+                scheduler = StatementWatchdog.scheduler;
+                if ( scheduler == null ) {
+                    scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+                        final Thread thread = new Thread(runnable, "arjdbc-statement-watchdog");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    scheduler.setRemoveOnCancelPolicy(true); // completed statements are the norm
+                    StatementWatchdog.scheduler = scheduler;
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * @param cancel task to run once the deadline passes
+     * @param timeout in milliseconds
+     * @return a future to be cancelled once the statement completes
+     */
+    static ScheduledFuture<?> schedule(final Runnable cancel, final long timeout) {
+        return scheduler().schedule(cancel, timeout, TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -26,6 +26,7 @@
 package arjdbc.mssql;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import java.sql.Connection;
@@ -134,6 +135,13 @@ public class MSSQLRubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, int type) throws SQLException {
+        if ( type == Types.LONGVARCHAR || type == Types.LONGNVARCHAR ) type = Types.CLOB;
+        return super.columnConverter(context, resultSet, column, type);
+    }
+
     @Override
     protected ColumnData[] extractColumns(final ThreadContext context,
         final Connection connection, final ResultSet resultSet,
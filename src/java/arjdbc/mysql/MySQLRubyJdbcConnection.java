@@ -26,6 +26,7 @@
 package arjdbc.mysql;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
 import arjdbc.jdbc.DriverWrapper;
 import arjdbc.jdbc.RubyJdbcConnection;
 import arjdbc.util.DateTimeUtils;
@@ -180,6 +181,34 @@ public class MySQLRubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        if ( type == Types.BIT ) {
+            return (ctx, runtime, rs, index) -> {
+                final int value = rs.getInt(index);
+                return rs.wasNull() ? ctx.nil : runtime.newFixnum(value);
+            };
+        }
+        return super.columnConverter(context, resultSet, column, type);
+    }
+
+    @Override // unless the NO_BACKSLASH_ESCAPES SQL mode is set
+    protected boolean isBackslashEscapes() {
+        return true;
+    }
+
+    @Override // Connector/J reads LOB values (unless emulateLocators=true)
+    protected boolean isLobReadableAfterClose() {
+        return true;
+    }
+
+    @Override // BIT read as an integer, TIME read as a timestamp (see timeToRuby)
+    protected boolean isParallelConvertible(final ColumnData column) {
+        if ( column.type == Types.BIT || column.type == Types.TIME ) return false;
+        return super.isParallelConvertible(column);
+    }
+
     @Override
     protected void setTimeParameter(final ThreadContext context,
         final Connection connection, final PreparedStatement statement,
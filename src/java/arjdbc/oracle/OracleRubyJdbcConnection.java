@@ -32,6 +32,7 @@ Copyright (c) 2008-2011 Graham Jenkins, Michael Schoen, Raimonds Simanovskis
 package arjdbc.oracle;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnarResult;
 import arjdbc.jdbc.RubyJdbcConnection;
 import arjdbc.util.CallResultSet;
 
@@ -188,6 +189,12 @@ public class OracleRubyJdbcConnection extends RubyJdbcConnection {
         return true;
     }
 
+    @Override // strings are converted using stringToRuby
+    protected int columnarBufferType(final ColumnData column) {
+        final int type = super.columnarBufferType(column);
+        return type == ColumnarResult.STRING ? ColumnarResult.OBJECT : type;
+    }
+
     @Override // resultSet.wasNull() might be falsy for '' treated as null
     protected IRubyObject stringToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
@@ -197,6 +204,13 @@ public class OracleRubyJdbcConnection extends RubyJdbcConnection {
         return RubyString.newUnicodeString(runtime, value);
     }
 
+    @Override // NULL CLOBs are returned as '' (see readerToRuby)
+    protected IRubyObject clobToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column)
+        throws SQLException, IOException {
+        return readerToRuby(context, runtime, resultSet, column);
+    }
+
     @Override
     protected IRubyObject readerToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column)
@@ -207,7 +221,7 @@ public class OracleRubyJdbcConnection extends RubyJdbcConnection {
                 return RubyString.newEmptyString(runtime);
             }
 
-            final int bufSize = streamBufferSize;
+            final int bufSize = getStreamBufferSize();
             final StringBuilder string = new StringBuilder(bufSize);
 
             final char[] buf = new char[ bufSize / 2 ];
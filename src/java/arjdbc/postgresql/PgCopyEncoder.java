@@ -0,0 +1,190 @@
+package arjdbc.postgresql;
+
+import java.nio.charset.StandardCharsets;
+
+import org.jcodings.specific.ASCIIEncoding;
+import org.jcodings.specific.USASCIIEncoding;
+import org.jcodings.specific.UTF8Encoding;
+import org.jruby.RubyArray;
+import org.jruby.RubyBoolean;
+import org.jruby.RubyFloat;
+import org.jruby.RubyHash;
+import org.jruby.RubyInteger;
+import org.jruby.RubyString;
+import org.jruby.RubyTime;
+import org.jruby.ext.bigdecimal.RubyBigDecimal;
+import org.jruby.ext.date.RubyDate;
+import org.jruby.ext.date.RubyDateTime;
+import org.jruby.runtime.ThreadContext;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.ByteList;
+
+/**
+ * Encodes (Ruby) rows into PostgreSQL's COPY text format (UTF-8), as used by
+ * <code>COPY ... FROM STDIN</code>: tab separated columns, one row per line,
+ * <code>\N</code> for NULL and back-slash escapes for special characters.
+ *
+ * Values are formatted the same way as when bound to a prepared statement,
+ * e.g. times are encoded just like {@link PostgreSQLRubyJdbcConnection}'s
+ * timestamp parameters are (with the zone offset).
+ *
+ * @see PostgreSQLRubyJdbcConnection#copy_from(ThreadContext, IRubyObject, IRubyObject)
+ */
+final class PgCopyEncoder {
+
+    private static final byte[] NULL = { '\\', 'N' };
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final ByteList buffer;
+    private final ByteList scratch = new ByteList(64); // array literals
+
+    PgCopyEncoder(final int capacity) {
+        this.buffer = new ByteList(capacity);
+    }
+
+    ByteList getBuffer() { return buffer; }
+
+    /**
+     * Appends a (single) row terminated by a new-line.
+     * @param context
+     * @param row an array of column values
+     */
+    void encodeRow(final ThreadContext context, final IRubyObject row) {
+        final RubyArray values = row.convertToArray();
+        for ( int i = 0; i < values.size(); i++ ) {
+            if ( i > 0 ) buffer.append('\t');
+            encodeValue(context, values.eltInternal(i));
+        }
+        buffer.append('\n');
+    }
+
+    private void encodeValue(final ThreadContext context, final IRubyObject value) {
+        if ( value == null || value.isNil() ) {
+            buffer.append(NULL); return;
+        }
+        if ( value instanceof RubyString ) {
+            appendString((RubyString) value); return;
+        }
+        if ( value instanceof RubyInteger || value instanceof RubyFloat ) {
+            buffer.append(value.asString().getByteList()); return; // NaN and Infinity as PG expects
+        }
+        if ( value instanceof RubyBoolean ) {
+            buffer.append(value.isTrue() ? 't' : 'f'); return;
+        }
+        if ( value instanceof RubyBigDecimal ) {
+            appendDecimal(context, (RubyBigDecimal) value); return;
+        }
+        if ( value instanceof RubyTime || value instanceof RubyDateTime ) {
+            appendASCII(PgDateTimeUtils.timestampValueToString(context, value, null, true)); return;
+        }
+        if ( value instanceof RubyDate ) {
+            buffer.append(value.asString().getByteList()); return; // yyyy-mm-dd
+        }
+        if ( value instanceof RubyArray ) {
+            scratch.setRealSize(0);
+            appendArrayLiteral(context, (RubyArray) value);
+            appendEscaped(scratch.unsafeBytes(), scratch.getBegin(), scratch.getRealSize());
+            return;
+        }
+        if ( value instanceof RubyHash && value.respondsTo("to_json") ) {
+            appendString(value.callMethod(context, "to_json").asString()); return;
+        }
+        appendString(value.asString());
+    }
+
+    private void appendDecimal(final ThreadContext context, final RubyBigDecimal value) {
+        if ( value.nan_p(context).isTrue() || ! value.infinite_p(context).isNil() ) {
+            buffer.append(value.to_s(context).getByteList()); // NaN, Infinity, -Infinity
+        }
+        else {
+            appendASCII(value.getValue().toPlainString());
+        }
+    }
+
+    private void appendString(final RubyString value) {
+        final ByteList bytes = value.getByteList();
+        if ( bytes.getEncoding() == UTF8Encoding.INSTANCE || bytes.getEncoding() == USASCIIEncoding.INSTANCE ||
+             value.isAsciiOnly() ) {
+            appendEscaped(bytes.unsafeBytes(), bytes.getBegin(), bytes.getRealSize());
+        }
+        else if ( bytes.getEncoding() == ASCIIEncoding.INSTANCE ) { // binary data (bytea)
+            appendHexBytea(bytes);
+        }
+        else { // transcode to the (UTF-8) client encoding
+            final byte[] utf8 = value.toString().getBytes(StandardCharsets.UTF_8);
+            appendEscaped(utf8, 0, utf8.length);
+        }
+    }
+
+    private void appendEscaped(final byte[] bytes, final int off, final int len) {
+        final ByteList buffer = this.buffer;
+        int start = off; final int end = off + len;
+        for ( int i = off; i < end; i++ ) {
+            final byte escape;
+            switch ( bytes[i] ) {
+                case '\\' : escape = '\\'; break;
+                case '\n' : escape = 'n'; break;
+                case '\r' : escape = 'r'; break;
+                case '\t' : escape = 't'; break;
+                default : continue;
+            }
+            buffer.append(bytes, start, i - start);
+            buffer.append('\\'); buffer.append(escape);
+            start = i + 1;
+        }
+        buffer.append(bytes, start, end - start);
+    }
+
+    private void appendHexBytea(final ByteList bytes) {
+        final ByteList buffer = this.buffer;
+        buffer.ensure(buffer.getRealSize() + 3 + bytes.getRealSize() * 2);
+        buffer.append('\\'); buffer.append('\\'); buffer.append('x'); // \x escaped
+        final byte[] b = bytes.unsafeBytes();
+        for ( int i = bytes.getBegin(); i < bytes.getBegin() + bytes.getRealSize(); i++ ) {
+            buffer.append(HEX[(b[i] >> 4) & 0x0F]);
+            buffer.append(HEX[b[i] & 0x0F]);
+        }
+    }
+
+    private void appendASCII(final String str) {
+        final ByteList buffer = this.buffer;
+        for ( int i = 0; i < str.length(); i++ ) buffer.append((byte) str.charAt(i));
+    }
+
+    // {1,NULL,"a \"quoted\" value"} - elements are (always) quoted
+    private void appendArrayLiteral(final ThreadContext context, final RubyArray array) {
+        final ByteList scratch = this.scratch;
+        scratch.append('{');
+        for ( int i = 0; i < array.size(); i++ ) {
+            if ( i > 0 ) scratch.append(',');
+            final IRubyObject elem = array.eltInternal(i);
+            if ( elem.isNil() ) {
+                scratch.append('N'); scratch.append('U'); scratch.append('L'); scratch.append('L');
+            }
+            else if ( elem instanceof RubyArray ) {
+                appendArrayLiteral(context, (RubyArray) elem);
+            }
+            else {
+                final String str;
+                if ( elem instanceof RubyTime ) {
+                    str = PgDateTimeUtils.timestampValueToString(context, elem, null, true);
+                }
+                else if ( elem instanceof RubyBigDecimal && elem.callMethod(context, "finite?").isTrue() ) {
+                    str = ((RubyBigDecimal) elem).getValue().toPlainString();
+                }
+                else {
+                    str = elem.asString().toString();
+                }
+                scratch.append('"');
+                final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+                for ( final byte b : bytes ) {
+                    if ( b == '"' || b == '\\' ) scratch.append('\\');
+                    scratch.append(b);
+                }
+                scratch.append('"');
+            }
+        }
+        scratch.append('}');
+    }
+
+}
@@ -1,6 +1,7 @@
 package arjdbc.postgresql;
 
 import arjdbc.jdbc.JdbcResult;
+import arjdbc.jdbc.ResultColumns;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import java.sql.ResultSet;
@@ -30,8 +31,10 @@ import org.jruby.runtime.builtin.IRubyObject;
 public class PostgreSQLResult extends JdbcResult {
     private RubyArray fields = null; // lazily created if PG fields method is called.
 
-    // These are needed when generating an AR::Result
-    private final ResultSetMetaData resultSetMetaData;
+    // These are needed when generating an AR::Result, read upfront as the
+    // AR::Result might get built (on another thread) once the result set is closed
+    private final String[] columnTypeNames;
+    private final int[] columnTypeMods;
 
     /********* JRuby compat methods ***********/
 
@@ -52,16 +55,49 @@ public class PostgreSQLResult extends JdbcResult {
      */
     static PostgreSQLResult newResult(ThreadContext context,  RubyClass clazz, PostgreSQLRubyJdbcConnection connection,
                                       ResultSet resultSet) throws SQLException {
-        return new PostgreSQLResult(context, clazz, connection, resultSet);
+        return new PostgreSQLResult(context, clazz, connection, resultSet, null);
+    }
+
+    /**
+     * Generates a new PostgreSQLResult object for the given result set (of a cached statement)
+     * @param context current thread context
+     * @param clazz metaclass for this result object
+     * @param resultSet the set of results that should be returned
+     * @param resultColumns cached (statement) column metadata
+     * @return an instantiated result object
+     * @throws SQLException throws!
+     */
+    static PostgreSQLResult newResult(ThreadContext context,  RubyClass clazz, PostgreSQLRubyJdbcConnection connection,
+                                      ResultSet resultSet, ResultColumns resultColumns) throws SQLException {
+        return new PostgreSQLResult(context, clazz, connection, resultSet, resultColumns);
     }
 
     /********* End JRuby compat methods ***********/
 
     private PostgreSQLResult(ThreadContext context, RubyClass clazz, RubyJdbcConnection connection,
-                             ResultSet resultSet) throws SQLException {
-        super(context, clazz, connection, resultSet);
+                             ResultSet resultSet, ResultColumns resultColumns) throws SQLException {
+        super(context, clazz, connection, resultSet, resultColumns);
+
+        final ResultSetMetaData resultSetMetaData = resultSet.getMetaData();
+        final int columnCount = columnNames.length;
+        columnTypeNames = new String[columnCount];
+        columnTypeMods = new int[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            final int col = i + 1;
+            final String typeName = columnTypeNames[i] = resultSetMetaData.getColumnTypeName(col);
 
-        resultSetMetaData = resultSet.getMetaData();
+            int mod = 0;
+            if  ("numeric".equals(typeName)) {
+                // this field is only relevant for "numeric" type in AR
+                // AR checks (fmod - 4 & 0xffff).zero?
+                // pgjdbc:
+                //  - for typmod == -1, getScale() and getPrecision() return 0
+                //  - for typmod != -1, getScale() returns "(typmod - 4) & 0xFFFF;"
+                mod = resultSetMetaData.getScale(col);
+                mod = mod == 0 && resultSetMetaData.getPrecision(col) == 0 ? -1 : mod + 4;
+            }
+            columnTypeMods[i] = mod;
+        }
     }
 
     /**
@@ -78,24 +114,10 @@ public class PostgreSQLResult extends JdbcResult {
 
         IRubyObject adapter = connection.adapter(context);
         for (int i = 0; i < columnCount; i++) {
-            int col = i + 1;
-            String typeName = resultSetMetaData.getColumnTypeName(col);
-
-            int mod = 0;
-            if  ("numeric".equals(typeName)) {
-                // this field is only relevant for "numeric" type in AR
-                // AR checks (fmod - 4 & 0xffff).zero?
-                // pgjdbc:
-                //  - for typmod == -1, getScale() and getPrecision() return 0
-                //  - for typmod != -1, getScale() returns "(typmod - 4) & 0xFFFF;"
-                mod = resultSetMetaData.getScale(col);
-                mod = mod == 0 && resultSetMetaData.getPrecision(col) == 0 ? -1 : mod + 4;
-            }
-
             final RubyString name = columnNames[i];
             final IRubyObject type = Helpers.invoke(context, adapter, "get_oid_type",
-                    runtime.newString(typeName),
-                    runtime.newFixnum(mod),
+                    runtime.newString(columnTypeNames[i]),
+                    runtime.newFixnum(columnTypeMods[i]),
                     name);
 
             if (!type.isNil()) types.fastASet(name, type);
@@ -27,12 +27,17 @@
 package arjdbc.postgresql;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
 import arjdbc.jdbc.DriverWrapper;
+import arjdbc.jdbc.ResultColumns;
 import arjdbc.util.DateTimeUtils;
+import arjdbc.util.DecimalHelper;
 import arjdbc.util.PG;
 import arjdbc.util.StringHelper;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.StringBuilder;
 import java.lang.reflect.InvocationTargetException;
 import java.math.BigDecimal;
@@ -53,19 +58,30 @@ import java.util.UUID;
 import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
+import org.joda.time.DateTimeZone;
 import org.jruby.*;
 import org.jruby.anno.JRubyMethod;
 import org.jruby.exceptions.RaiseException;
+import org.jruby.java.proxies.ArrayJavaProxy;
+import org.jruby.java.proxies.JavaProxy;
 import org.jruby.ext.bigdecimal.RubyBigDecimal;
 import org.jruby.javasupport.JavaUtil;
+import org.jruby.runtime.Block;
+import org.jruby.runtime.Helpers;
 import org.jruby.runtime.ObjectAllocator;
+import org.jruby.runtime.Signature;
 import org.jruby.runtime.ThreadContext;
 import org.jruby.runtime.builtin.IRubyObject;
 import org.jruby.util.ByteList;
+import org.jruby.util.IOInputStream;
+import org.jruby.util.IOOutputStream;
 
 import org.jruby.util.TypeConverter;
 import org.postgresql.PGConnection;
 import org.postgresql.PGStatement;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.CopyOut;
 import org.postgresql.geometric.PGbox;
 import org.postgresql.geometric.PGcircle;
 import org.postgresql.geometric.PGline;
@@ -280,6 +296,28 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return mapExecuteResult(context, connection, resultSet).toARResult(context);
     }
 
+    @Override // column names and the AR::Result type map are resolved once per (cached) statement
+    protected IRubyObject mapQueryResult(final ThreadContext context, final Connection connection,
+                                         final ResultSet resultSet, final ResultColumns resultColumns) throws SQLException {
+        return PostgreSQLResult.newResult(context, resultClass, this, resultSet, resultColumns).toARResult(context);
+    }
+
+    @Override // the AR::Result type map (get_oid_type) is resolved on the thread awaiting the result
+    protected IRubyObject mapAsyncQueryResult(final ThreadContext context, final Connection connection,
+                                              final ResultSet resultSet) throws SQLException {
+        return mapExecuteResult(context, connection, resultSet);
+    }
+
+    @Override
+    protected IRubyObject completeAsyncQueryResult(final ThreadContext context, final IRubyObject result) throws SQLException {
+        return result instanceof PostgreSQLResult ? ((PostgreSQLResult) result).toARResult(context) : result;
+    }
+
+    @Override // PgJDBC only uses a server side cursor (fetch size) with auto-commit off
+    protected boolean cursorRequiresTransaction() {
+        return true;
+    }
+
     @Override
     protected void setArrayParameter(final ThreadContext context,
                                      final Connection connection, final PreparedStatement statement,
@@ -287,6 +325,13 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
                                      final IRubyObject attribute, final int type) throws SQLException {
 
         final String typeName = resolveArrayBaseTypeName(context, attribute);
+
+        if (value instanceof ArrayJavaProxy) { // a packed Java array e.g. `[1, 2].to_java(:int)`
+            final Object[] values = toObjectArray(((ArrayJavaProxy) value).getObject());
+            statement.setArray(index, connection.createArrayOf(typeName, values));
+            return;
+        }
+
         final RubyArray valueForDB = (RubyArray) value.callMethod(context, "values");
 
         Object[] values;
@@ -304,6 +349,17 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         statement.setArray(index, connection.createArrayOf(typeName, values));
     }
 
+    @Override
+    protected boolean isBulkArrayType(final int baseType) {
+        if (typeMap != null) return false; // elements might need decoding
+        switch (baseType) {
+            case Types.NUMERIC: // decimalToRuby handles NaN
+            case Types.DECIMAL:
+                return false;
+        }
+        return super.isBulkArrayType(baseType);
+    }
+
     protected void setDecimalParameter(final ThreadContext context,
                                        final Connection connection, final PreparedStatement statement,
                                        final int index, final IRubyObject value,
@@ -514,6 +570,20 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return decoder.callMethod(context, "decode", StringHelper.newDefaultInternalString(runtime, resultSet.getString(column)));
     }
 
+    @Override
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        if (typeMap != null) { // resolve the type-map decoder once per column
+            final String typeName = resultSet.getMetaData().getColumnTypeName(column);
+            final IRubyObject decoder = typeMap.op_aref(context, STRING_CACHE.get(context, typeName));
+            if (!decoder.isNil()) {
+                return (ctx, runtime, rs, index) ->
+                    decoder.callMethod(ctx, "decode", StringHelper.newDefaultInternalString(runtime, rs.getString(index)));
+            }
+        }
+        return super.columnConverter(context, resultSet, column, type);
+    }
+
     // The tests won't start if this returns PGpoint[]
     // it fails with a runtime error: "NativeException: java.lang.reflect.InvocationTargetException: [Lorg/postgresql/geometric/PGpoint"
     private Object[] convertToPoints(Double[] values) throws SQLException {
@@ -743,10 +813,15 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return DateTimeUtils.parseDate(context, value, getDefaultTimeZone(context));
     }
 
+    @Override
     protected IRubyObject decimalToRuby(final ThreadContext context,
-                                        final Ruby runtime, final ResultSet resultSet, final int column) throws SQLException {
-        if ("NaN".equals(resultSet.getString(column)))  return new RubyBigDecimal(runtime, BigDecimal.ZERO, true);
-        return super.decimalToRuby(context, runtime, resultSet, column);
+                                        final Ruby runtime, final ResultSet resultSet, final int column,
+                                        final RubyClass bigDecimal) throws SQLException {
+        // the driver parses the (text) value for getBigDecimal, we read it once
+        final String value = resultSet.getString(column);
+        if (value == null) return context.nil;
+        if ("NaN".equals(value)) return new RubyBigDecimal(runtime, BigDecimal.ZERO, true);
+        return new RubyBigDecimal(runtime, bigDecimal, DecimalHelper.parseDecimal(value));
     }
 
     /**
@@ -807,6 +882,12 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         return stringToRuby(context, runtime, resultSet, index);
     }
 
+    @Override // text values are not LOBs (see readerToRuby)
+    protected IRubyObject clobToRuby(ThreadContext context, Ruby runtime,
+                                     ResultSet resultSet, int index) throws SQLException {
+        return stringToRuby(context, runtime, resultSet, index);
+    }
+
     /**
      * Converts a string column into a Ruby string by pulling the raw bytes from the column and
      * turning them into a string using the default encoding
@@ -851,7 +932,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
      */
     @Override
     protected IRubyObject timestampToRuby(ThreadContext context, Ruby runtime, ResultSet resultSet,
-                                          int column) throws SQLException {
+                                          int column, DateTimeZone defaultZone) throws SQLException {
         // NOTE: using Timestamp we loose information such as BC :
         // Timestamp: '0001-12-31 22:59:59.0' String: '0001-12-31 22:59:59 BC'
         final String value = resultSet.getString(column);
@@ -866,7 +947,7 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
         }
 
         // handles '0001-01-01 23:59:59 BC'
-        return DateTimeUtils.parseDateTime(context, value, getDefaultTimeZone(context));
+        return DateTimeUtils.parseDateTime(context, value, defaultZone);
     }
 
     private IRubyObject parseInfinity(final Ruby runtime, final String value) {
@@ -1006,6 +1087,127 @@ public class PostgreSQLRubyJdbcConnection extends arjdbc.jdbc.RubyJdbcConnection
 
     }
 
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Bulk loads data using <code>COPY ... FROM STDIN</code>.
+     * The source is either an IO (any object responding to <code>read</code>)
+     * with data in the format the COPY statement expects (e.g. CSV or binary)
+     * or an enumerable yielding rows (arrays of values), rows are encoded (on
+     * the Java side) in COPY's text format and streamed in chunks, thus memory
+     * use does not depend on the amount of data loaded.
+     * @param context
+     * @param sql the COPY statement e.g. <code>COPY users (id, name) FROM STDIN</code>
+     * @param source an IO or an enumerable of rows
+     * @return number of rows copied
+     */
+    @JRubyMethod(name = "copy_from", required = 2)
+    public IRubyObject copy_from(final ThreadContext context, final IRubyObject sql, final IRubyObject source) {
+        final String query = sqlString(sql);
+        return withConnection(context, (Callable<IRubyObject>) connection -> {
+            final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            if ( source.respondsTo("read") ) { // IO (pre-encoded data)
+                try {
+                    final long count = copyManager.copyIn(query, new IOInputStream(source), COPY_BUFFER_SIZE);
+                    invalidateResultCache(context, connection, query);
+                    return context.runtime.newFixnum(count);
+                }
+                catch (IOException e) {
+                    throw context.runtime.newIOErrorFromException(e);
+                }
+            }
+            final CopyIn copyIn = copyManager.copyIn(query);
+            try {
+                final PgCopyEncoder encoder = new PgCopyEncoder(COPY_BUFFER_SIZE + 1024);
+                final ByteList buffer = encoder.getBuffer();
+                RubyEnumerable.callEach(context.runtime, context, source, Signature.ONE_ARGUMENT, (ctx, args, block) -> {
+                    encoder.encodeRow(ctx, args.length == 1 ? args[0] : RubyArray.newArrayNoCopy(ctx.runtime, args));
+                    if ( buffer.getRealSize() >= COPY_BUFFER_SIZE ) writeToCopy(ctx, copyIn, buffer);
+                    return ctx.nil;
+                });
+                writeToCopy(context, copyIn, buffer);
+                final long count = copyIn.endCopy();
+                invalidateResultCache(context, connection, query);
+                return context.runtime.newFixnum(count);
+            }
+            finally {
+                if ( copyIn.isActive() ) copyIn.cancelCopy(); // failed (or raised while iterating)
+            }
+        });
+    }
+
+    /**
+     * Exports data using <code>COPY ... TO STDOUT</code>, streamed as is (in
+     * the format requested e.g. CSV or binary) into the given IO or a Java
+     * <code>OutputStream</code>, alternatively chunks are yielded as (binary)
+     * strings. No Ruby objects are created per row (or cell), data is written
+     * in chunks. The export is cancelled if writing (or the block) raises.
+     * @param context
+     * @param args the COPY statement e.g. <code>COPY users TO STDOUT (FORMAT csv)</code>
+     * and an (optional) IO
+     * @param block
+     * @return number of rows copied
+     */
+    @JRubyMethod(name = "copy_to", required = 1, optional = 1)
+    public IRubyObject copy_to(final ThreadContext context, final IRubyObject[] args, final Block block) {
+        final String query = sqlString(args[0]);
+        final IRubyObject io = args.length > 1 ? args[1] : context.nil;
+        if ( io.isNil() && ! block.isGiven() ) {
+            throw context.runtime.newArgumentError("an IO (or a block) is required");
+        }
+        return withConnection(context, (Callable<IRubyObject>) connection -> {
+            final CopyOut copyOut = connection.unwrap(PGConnection.class).getCopyAPI().copyOut(query);
+            try {
+                final OutputStream out = io.isNil() ? null : toOutputStream(io);
+                final ByteList buffer = new ByteList(COPY_BUFFER_SIZE + 1024);
+                byte[] data;
+                while ( ( data = copyOut.readFromCopy() ) != null ) { // blocks until the previous chunk got written
+                    buffer.append(data);
+                    if ( buffer.getRealSize() >= COPY_BUFFER_SIZE ) writeFromCopy(context, out, buffer, block);
+                }
+                writeFromCopy(context, out, buffer, block);
+                if ( out != null ) out.flush();
+                return context.runtime.newFixnum(copyOut.getHandledRowCount());
+            }
+            catch (IOException e) {
+                throw context.runtime.newIOErrorFromException(e);
+            }
+            finally {
+                if ( copyOut.isActive() ) copyOut.cancelCopy(); // failed writing (or raised in block)
+            }
+        });
+    }
+
+    private static OutputStream toOutputStream(final IRubyObject io) {
+        if ( io instanceof JavaProxy && ((JavaProxy) io).getObject() instanceof OutputStream ) {
+            return (OutputStream) ((JavaProxy) io).getObject();
+        }
+        return new IOOutputStream(io);
+    }
+
+    private static void writeFromCopy(final ThreadContext context, final OutputStream out,
+        final ByteList buffer, final Block block) throws IOException {
+        if ( buffer.getRealSize() == 0 ) return;
+        if ( out != null ) {
+            out.write(buffer.unsafeBytes(), buffer.getBegin(), buffer.getRealSize());
+        }
+        else { // a (copied) chunk for the block
+            block.yield(context, RubyString.newString(context.runtime, buffer.unsafeBytes(), buffer.getBegin(), buffer.getRealSize()));
+        }
+        buffer.setRealSize(0);
+    }
+
+    private static void writeToCopy(final ThreadContext context, final CopyIn copyIn, final ByteList buffer) {
+        if ( buffer.getRealSize() == 0 ) return;
+        try {
+            copyIn.writeToCopy(buffer.unsafeBytes(), buffer.getBegin(), buffer.getRealSize());
+        }
+        catch (SQLException e) {
+            Helpers.throwException(e); // handled by withConnection
+        }
+        buffer.setRealSize(0);
+    }
+
     @PG @JRubyMethod
     public IRubyObject escape_string(ThreadContext context, IRubyObject string) {
         return PostgreSQLModule.quote_string(context, this, string);
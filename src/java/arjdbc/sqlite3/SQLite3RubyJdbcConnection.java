@@ -56,6 +56,8 @@ import org.jruby.runtime.builtin.IRubyObject;
 import org.jruby.util.SafePropertyAccessor;
 
 import arjdbc.jdbc.Callable;
+import arjdbc.jdbc.ColumnConverter;
+import arjdbc.jdbc.ColumnarResult;
 import arjdbc.jdbc.RubyJdbcConnection;
 
 import static arjdbc.util.StringHelper.newDefaultInternalString;
@@ -272,6 +274,16 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
         return new TableName(catalog, schema, name);
     }
 
+    @Override // column types might change per row (see jdbcToRuby)
+    protected int columnarBufferType(final ColumnData column) {
+        return ColumnarResult.OBJECT;
+    }
+
+    @Override // column types might change per row (see jdbcToRuby)
+    protected boolean isParallelConvertible(final ColumnData column) {
+        return false;
+    }
+
     @Override
     protected IRubyObject jdbcToRuby(final ThreadContext context,
         final Ruby runtime, final int column, int type, final ResultSet resultSet)
@@ -293,6 +305,12 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
         return super.jdbcToRuby(context, runtime, column, type, resultSet);
     }
 
+    @Override // types need to be resolved per row (see jdbcToRuby)
+    protected ColumnConverter columnConverter(final ThreadContext context,
+        final ResultSet resultSet, final int column, final int type) throws SQLException {
+        return (ctx, runtime, rs, index) -> jdbcToRuby(ctx, runtime, index, type, rs);
+    }
+
     @Override
     protected IRubyObject stringToRuby(final ThreadContext context,
         final Ruby runtime, final ResultSet resultSet, final int column) throws SQLException {
@@ -310,6 +328,14 @@ public class SQLite3RubyJdbcConnection extends RubyJdbcConnection {
         return newString(runtime, bytes);
     }
 
+    @Override // getBlob is not supported by the driver
+    protected IRubyObject blobToRuby(final ThreadContext context,
+        final Ruby runtime, final ResultSet resultSet, final int column) throws SQLException {
+        final byte[] bytes = resultSet.getBytes(column);
+        if ( bytes == null ) return context.nil; // resultSet.wasNull()
+        return newString(runtime, bytes);
+    }
+
     @Override
     protected RubyArray mapTables(final ThreadContext context, final Connection connection,
         final String catalog, final String schemaPattern, final String tablePattern,
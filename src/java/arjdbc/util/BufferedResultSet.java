@@ -0,0 +1,899 @@
+package arjdbc.util;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.Map;
+
+/**
+ * {@link ResultSet} "emulation" over rows of (previously) read values.
+ * Values are expected to be read with the (typed) getter matching the column's
+ * type, e.g. a <code>Types.TIMESTAMP</code> column with <code>getTimestamp</code>,
+ * getters do only a few basic conversions on the buffered values.
+ * Streams, LOBs and other driver specific values are not supported.
+ *
+ * Instances are cheap, rows might be shared (read-only) between instances
+ * thus multiple threads can each convert a range of rows using their own.
+ */
+public class BufferedResultSet implements ResultSet {
+
+    private final Object[][] rows; // rows[row][column - 1]
+    private final int size; private int row;
+    private final ResultSetMetaData metaData;
+    private boolean wasNull;
+
+    public BufferedResultSet(final Object[][] rows, final int size, final ResultSetMetaData metaData) {
+        this.rows = rows; this.size = size; this.metaData = metaData;
+    }
+
+    /**
+     * Reads the current row's value using the getter matching the column's type.
+     * @param resultSet
+     * @param column
+     * @param type
+     * @return the (buffered) value
+     * @throws SQLException
+     */
+    public static Object readValue(final ResultSet resultSet, final int column, final int type) throws SQLException {
+        final Object value;
+        switch (type) {
+            case java.sql.Types.TINYINT:
+            case java.sql.Types.SMALLINT:
+            case java.sql.Types.INTEGER:
+                value = resultSet.getLong(column); break;
+            case java.sql.Types.REAL:
+            case java.sql.Types.FLOAT:
+            case java.sql.Types.DOUBLE:
+                value = resultSet.getDouble(column); break;
+            case java.sql.Types.NUMERIC:
+            case java.sql.Types.DECIMAL:
+                value = resultSet.getBigDecimal(column); break;
+            case java.sql.Types.DATE:
+                value = resultSet.getDate(column); break;
+            case java.sql.Types.TIME:
+                value = resultSet.getTime(column); break;
+            case java.sql.Types.TIMESTAMP:
+                value = resultSet.getTimestamp(column); break;
+            case java.sql.Types.BIT:
+            case java.sql.Types.BOOLEAN:
+                value = resultSet.getBoolean(column); break;
+            default: // BIGINT, CHAR, VARCHAR ...
+                value = resultSet.getString(column);
+        }
+        return resultSet.wasNull() ? null : value;
+    }
+
+    private Object value(final int columnIndex) throws SQLException {
+        if ( row <= 0 || row > size ) throw new SQLException("no current row");
+        final Object value = rows[row - 1][columnIndex - 1];
+        wasNull = value == null;
+        return value;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if ( iface.isAssignableFrom(getClass()) ) return (T) this;
+        throw new SQLException(getClass().getName() + " does not wrap " + iface);
+    }
+
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isAssignableFrom(getClass());
+    }
+
+    public Statement getStatement() {
+        return null;
+    }
+
+    public int getHoldability() {
+        return 0;
+    }
+
+    public boolean isClosed() throws SQLException {
+        return false;
+    }
+
+    public void close() throws SQLException {
+        // NOOP
+    }
+
+    public int getRow() { return row; }
+
+    public boolean absolute(int row) {
+        if ( row < 0 ) row = size + 1 + row;
+        if ( row < 0 ) row = 0;
+        this.row = row; return row <= size && row > 0;
+    }
+    public boolean relative(int rows) {
+        return absolute(this.row + rows);
+    }
+
+    public boolean next() { return relative(+1); }
+    public boolean previous() { return relative(-1); }
+
+    public boolean first() { return absolute(1); }
+    public boolean last() { return absolute(-1); }
+
+    public boolean isBeforeFirst() { return row <= 0; }
+    public boolean isAfterLast() { return row > size; }
+
+    public boolean isFirst() { return row == 1; }
+    public boolean isLast() { return row == size; }
+
+    public void beforeFirst() { row = 0; }
+    public void afterLast() { row = size + 1; }
+
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return metaData;
+    }
+
+    public int findColumn(String columnLabel) throws SQLException {
+        final int count = metaData.getColumnCount();
+        for ( int i = 1; i <= count; i++ ) {
+            if ( columnLabel.equalsIgnoreCase(metaData.getColumnLabel(i)) ) return i;
+        }
+        throw new SQLException("column '" + columnLabel + "' not found");
+    }
+
+    public void setFetchDirection(int direction) throws SQLException {
+        // NOOP
+    }
+
+    public int getFetchDirection() throws SQLException {
+        return FETCH_FORWARD;
+    }
+
+    public void setFetchSize(int rows) throws SQLException {
+        // NOOP
+    }
+
+    public int getFetchSize() throws SQLException {
+        return size;
+    }
+
+    public int getType() throws SQLException {
+        return TYPE_SCROLL_INSENSITIVE;
+    }
+
+    public int getConcurrency() throws SQLException {
+        return CONCUR_READ_ONLY;
+    }
+
+    public boolean wasNull() throws SQLException {
+        return wasNull;
+    }
+
+    // GET-ERS :
+
+    public String getString(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        return value == null ? null : value.toString();
+    }
+
+    public boolean getBoolean(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return false;
+        if ( value instanceof Boolean ) return (Boolean) value;
+        if ( value instanceof Number ) return ((Number) value).intValue() != 0;
+        final String str = value.toString();
+        return "1".equals(str) || "t".equalsIgnoreCase(str) || "true".equalsIgnoreCase(str);
+    }
+
+    public byte getByte(int columnIndex) throws SQLException {
+        return (byte) getLong(columnIndex);
+    }
+
+    public short getShort(int columnIndex) throws SQLException {
+        return (short) getLong(columnIndex);
+    }
+
+    public int getInt(int columnIndex) throws SQLException {
+        return (int) getLong(columnIndex);
+    }
+
+    public long getLong(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return 0;
+        if ( value instanceof Number ) return ((Number) value).longValue();
+        if ( value instanceof Boolean ) return ((Boolean) value) ? 1 : 0;
+        try {
+            return Long.parseLong(value.toString());
+        }
+        catch (NumberFormatException e) {
+            throw new SQLException("can not convert '" + value + "' to long", e);
+        }
+    }
+
+    public float getFloat(int columnIndex) throws SQLException {
+        return (float) getDouble(columnIndex);
+    }
+
+    public double getDouble(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return 0;
+        if ( value instanceof Number ) return ((Number) value).doubleValue();
+        try {
+            return Double.parseDouble(value.toString());
+        }
+        catch (NumberFormatException e) {
+            throw new SQLException("can not convert '" + value + "' to double", e);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public BigDecimal getBigDecimal(int columnIndex, int scale) throws SQLException {
+        final BigDecimal value = getBigDecimal(columnIndex);
+        return value == null ? null : value.setScale(scale, BigDecimal.ROUND_HALF_UP);
+    }
+
+    public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return null;
+        if ( value instanceof BigDecimal ) return (BigDecimal) value;
+        try {
+            return new BigDecimal(value.toString());
+        }
+        catch (NumberFormatException e) {
+            throw new SQLException("can not convert '" + value + "' to decimal", e);
+        }
+    }
+
+    public byte[] getBytes(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return null;
+        if ( value instanceof byte[] ) return (byte[]) value;
+        return value.toString().getBytes(java.nio.charset.StandardCharsets.UTF_8);
+    }
+
+    public Date getDate(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return null;
+        if ( value instanceof Date ) return (Date) value;
+        if ( value instanceof java.util.Date ) return new Date(((java.util.Date) value).getTime());
+        return Date.valueOf(value.toString());
+    }
+
+    public Time getTime(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return null;
+        if ( value instanceof Time ) return (Time) value;
+        if ( value instanceof java.util.Date ) return new Time(((java.util.Date) value).getTime());
+        return Time.valueOf(value.toString());
+    }
+
+    public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null ) return null;
+        if ( value instanceof Timestamp ) return (Timestamp) value;
+        if ( value instanceof java.util.Date ) return new Timestamp(((java.util.Date) value).getTime());
+        return Timestamp.valueOf(value.toString());
+    }
+
+    public Object getObject(int columnIndex) throws SQLException {
+        return value(columnIndex);
+    }
+
+    public String getNString(int columnIndex) throws SQLException {
+        return getString(columnIndex);
+    }
+
+    public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        return getDate(columnIndex);
+    }
+
+    public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        return getTime(columnIndex);
+    }
+
+    public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        return getTimestamp(columnIndex);
+    }
+
+    public String getString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    public boolean getBoolean(String columnLabel) throws SQLException {
+        return getBoolean(findColumn(columnLabel));
+    }
+
+    public byte getByte(String columnLabel) throws SQLException {
+        return getByte(findColumn(columnLabel));
+    }
+
+    public short getShort(String columnLabel) throws SQLException {
+        return getShort(findColumn(columnLabel));
+    }
+
+    public int getInt(String columnLabel) throws SQLException {
+        return getInt(findColumn(columnLabel));
+    }
+
+    public long getLong(String columnLabel) throws SQLException {
+        return getLong(findColumn(columnLabel));
+    }
+
+    public float getFloat(String columnLabel) throws SQLException {
+        return getFloat(findColumn(columnLabel));
+    }
+
+    public double getDouble(String columnLabel) throws SQLException {
+        return getDouble(findColumn(columnLabel));
+    }
+
+    @SuppressWarnings("deprecation")
+    public BigDecimal getBigDecimal(String columnLabel, int scale) throws SQLException {
+        return getBigDecimal(findColumn(columnLabel), scale);
+    }
+
+    public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+        return getBigDecimal(findColumn(columnLabel));
+    }
+
+    public byte[] getBytes(String columnLabel) throws SQLException {
+        return getBytes(findColumn(columnLabel));
+    }
+
+    public Date getDate(String columnLabel) throws SQLException {
+        return getDate(findColumn(columnLabel));
+    }
+
+    public Time getTime(String columnLabel) throws SQLException {
+        return getTime(findColumn(columnLabel));
+    }
+
+    public Timestamp getTimestamp(String columnLabel) throws SQLException {
+        return getTimestamp(findColumn(columnLabel));
+    }
+
+    public Object getObject(String columnLabel) throws SQLException {
+        return getObject(findColumn(columnLabel));
+    }
+
+    public String getNString(String columnLabel) throws SQLException {
+        return getString(findColumn(columnLabel));
+    }
+
+    public Date getDate(String columnLabel, Calendar cal) throws SQLException {
+        return getDate(findColumn(columnLabel));
+    }
+
+    public Time getTime(String columnLabel, Calendar cal) throws SQLException {
+        return getTime(findColumn(columnLabel));
+    }
+
+    public Timestamp getTimestamp(String columnLabel, Calendar cal) throws SQLException {
+        return getTimestamp(findColumn(columnLabel));
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+        final Object value = value(columnIndex);
+        if ( value == null || type.isInstance(value) ) return (T) value;
+        throw new SQLFeatureNotSupportedException("getObject(" + columnIndex + ", " + type.getName() + ")");
+    }
+
+    public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+        return getObject(findColumn(columnLabel), type);
+    }
+
+    // NOT BUFFERED VALUES :
+
+    public InputStream getAsciiStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getAsciiStream()");
+    }
+
+    @SuppressWarnings("deprecation")
+    public InputStream getUnicodeStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getUnicodeStream()");
+    }
+
+    public InputStream getBinaryStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getBinaryStream()");
+    }
+
+    public InputStream getAsciiStream(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getAsciiStream()");
+    }
+
+    @SuppressWarnings("deprecation")
+    public InputStream getUnicodeStream(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getUnicodeStream()");
+    }
+
+    public InputStream getBinaryStream(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getBinaryStream()");
+    }
+
+    public Reader getCharacterStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getCharacterStream()");
+    }
+
+    public Reader getCharacterStream(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getCharacterStream()");
+    }
+
+    public Reader getNCharacterStream(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNCharacterStream()");
+    }
+
+    public Reader getNCharacterStream(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNCharacterStream()");
+    }
+
+    public Object getObject(int columnIndex, Map<String, Class<?>> map) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getObject(int, Map)");
+    }
+
+    public Object getObject(String columnLabel, Map<String, Class<?>> map) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getObject(String, Map)");
+    }
+
+    public Ref getRef(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRef()");
+    }
+
+    public Ref getRef(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRef()");
+    }
+
+    public Blob getBlob(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getBlob()");
+    }
+
+    public Blob getBlob(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getBlob()");
+    }
+
+    public Clob getClob(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getClob()");
+    }
+
+    public Clob getClob(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getClob()");
+    }
+
+    public NClob getNClob(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNClob()");
+    }
+
+    public NClob getNClob(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getNClob()");
+    }
+
+    public Array getArray(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getArray()");
+    }
+
+    public Array getArray(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getArray()");
+    }
+
+    public SQLXML getSQLXML(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getSQLXML()");
+    }
+
+    public SQLXML getSQLXML(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getSQLXML()");
+    }
+
+    public URL getURL(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getURL()");
+    }
+
+    public URL getURL(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getURL()");
+    }
+
+    public RowId getRowId(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRowId()");
+    }
+
+    public RowId getRowId(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("getRowId()");
+    }
+
+
+    // NOT SUPPORTED OPERATIONS :
+
+
+    public SQLWarning getWarnings() throws SQLException {
+        return null; // NOOP
+    }
+
+    public void clearWarnings() throws SQLException {
+        // NOOP
+    }
+
+    public String getCursorName() throws SQLException {
+        return null; // NOOP
+    }
+
+
+    public boolean rowUpdated() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row updates");
+    }
+
+    public boolean rowInserted() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row inserts");
+    }
+
+    public boolean rowDeleted() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row deletes");
+    }
+
+    public void insertRow() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row inserts");
+    }
+
+    public void updateRow() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row updates");
+    }
+
+    public void deleteRow() throws SQLException {
+        throw new SQLFeatureNotSupportedException("row deletes");
+    }
+
+    public void refreshRow() throws SQLException {
+        // NOOOP
+    }
+
+    public void cancelRowUpdates() throws SQLException {
+        // NOOP
+    }
+
+    public void moveToInsertRow() throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    public void moveToCurrentRow() throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+
+    public void updateNull(int columnIndex) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBoolean(int columnIndex, boolean x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateByte(int columnIndex, byte x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateShort(int columnIndex, short x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateInt(int columnIndex, int x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateLong(int columnIndex, long x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateFloat(int columnIndex, float x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateDouble(int columnIndex, double x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBigDecimal(int columnIndex, BigDecimal x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateString(int columnIndex, String x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBytes(int columnIndex, byte[] x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateDate(int columnIndex, Date x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateTime(int columnIndex, Time x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateTimestamp(int columnIndex, Timestamp x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateObject(int columnIndex, Object x, int scaleOrLength) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateObject(int columnIndex, Object x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNull(String columnLabel) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBoolean(String columnLabel, boolean x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateByte(String columnLabel, byte x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateShort(String columnLabel, short x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateInt(String columnLabel, int x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateLong(String columnLabel, long x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateFloat(String columnLabel, float x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateDouble(String columnLabel, double x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBigDecimal(String columnLabel, BigDecimal x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateString(String columnLabel, String x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBytes(String columnLabel, byte[] x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateDate(String columnLabel, Date x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateTime(String columnLabel, Time x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateTimestamp(String columnLabel, Timestamp x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader reader, int length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateObject(String columnLabel, Object x, int scaleOrLength) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateObject(String columnLabel, Object x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateRef(int columnIndex, Ref x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateRef(String columnLabel, Ref x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(int columnIndex, Blob x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(String columnLabel, Blob x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(int columnIndex, Clob x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(String columnLabel, Clob x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateArray(int columnIndex, Array x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateArray(String columnLabel, Array x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateRowId(int columnIndex, RowId x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateRowId(String columnLabel, RowId x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNString(int columnIndex, String nString) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNString(String columnLabel, String nString) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(int columnIndex, NClob nClob) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(String columnLabel, NClob nClob) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateSQLXML(int columnIndex, SQLXML xmlObject) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateSQLXML(String columnLabel, SQLXML xmlObject) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(int columnIndex, InputStream inputStream, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(String columnLabel, InputStream inputStream, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(int columnIndex, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(String columnLabel, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(int columnIndex, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(String columnLabel, Reader reader, long length) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(int columnIndex, InputStream x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(int columnIndex, InputStream x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(int columnIndex, Reader x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateAsciiStream(String columnLabel, InputStream x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBinaryStream(String columnLabel, InputStream x) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateCharacterStream(String columnLabel, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(int columnIndex, InputStream inputStream) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateBlob(String columnLabel, InputStream inputStream) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(int columnIndex, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateClob(String columnLabel, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(int columnIndex, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+    public void updateNClob(String columnLabel, Reader reader) throws SQLException {
+        throw new SQLFeatureNotSupportedException("updates");
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package arjdbc.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.joda.time.DateTimeZone;
+import org.jruby.Ruby;
+import org.jruby.RubyClass;
+import org.jruby.runtime.builtin.IRubyObject;
+import org.jruby.util.SafePropertyAccessor;
+
+/**
+ * A bounded cache of (frozen) Ruby <code>Date</code> instances, shared by all
+ * connections (and result sets) of a Ruby runtime.
+ *
+ * Result sets tend to repeat the same few (hundred) calendar days, Date objects
+ * are immutable (once frozen) thus converting a DATE value can return the same
+ * instance instead of going through Joda and Ruby's Date construction again.
+ *
+ * Dates are keyed by their (civil) day, zone and the kind of conversion that
+ * created them. Once full the cache gets cleared, use the system property
+ * <code>arjdbc.date_cache.size</code> to tune its size (0 disables caching).
+ *
+ * @see DateTimeUtils#newDateAsDate(org.jruby.runtime.ThreadContext, java.sql.Date, DateTimeZone)
+ */
+public final class DateCache {
+
+    static final int DEFAULT_SIZE = 1024;
+
+    private static final int SIZE = SafePropertyAccessor.getInt("arjdbc.date_cache.size", DEFAULT_SIZE);
+
+    private static final String INSTANCE_VAR = "__arjdbc_date_cache";
+
+    // kind of conversion (a Date created using different means might not be the same)
+    static final int TIME_TO_DATE = 0; // Time#to_date
+    static final int ISO_DATE = 1; // Date.new(DateTime) with a ISOChronology
+    static final int GJ_DATE = 2; // Date.new(DateTime) with a GJChronology
+
+    private final int maxSize;
+    private final ConcurrentHashMap<DateTimeZone, ConcurrentHashMap<Long, IRubyObject>> zones;
+
+    DateCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.zones = new ConcurrentHashMap<>(4);
+    }
+
+    /**
+     * @param runtime
+     * @return the runtime's cache (stored along the Date class) or null if disabled
+     */
+    static DateCache getInstance(final Ruby runtime) {
+        if ( SIZE <= 0 ) return null;
+        final RubyClass Date = runtime.getClass("Date");
+        if ( Date == null ) return null; // date not loaded
+        DateCache cache = (DateCache) Date.getInternalVariable(INSTANCE_VAR);
+        if ( cache == null ) {
+            synchronized (Date) {
+                cache = (DateCache) Date.getInternalVariable(INSTANCE_VAR);
+                if ( cache == null ) {
+                    Date.setInternalVariable(INSTANCE_VAR, cache = new DateCache(SIZE));
+                }
+            }
+        }
+        return cache;
+    }
+
+    static long key(final int kind, final int year, final int month, final int day) {
+        return ( ( (long) year << 9 | month << 5 | day ) << 2 ) | kind;
+    }
+
+    IRubyObject get(final DateTimeZone zone, final long key) {
+        final ConcurrentHashMap<Long, IRubyObject> dates = zones.get(zone);
+        return dates == null ? null : dates.get(key);
+    }
+
+    IRubyObject put(final DateTimeZone zone, final long key, final IRubyObject date) {
+        ConcurrentHashMap<Long, IRubyObject> dates = zones.get(zone);
+        if ( dates == null ) {
+            final ConcurrentHashMap<Long, IRubyObject> newDates = new ConcurrentHashMap<>();
+            dates = zones.putIfAbsent(zone, newDates);
+            if ( dates == null ) dates = newDates;
+        }
+        if ( dates.size() >= maxSize ) dates.clear(); // simple (but cheap) eviction
+        date.setFrozen(true);
+        final IRubyObject prev = dates.putIfAbsent(key, date);
+        return prev == null ? date : prev;
+    }
+
+}
@@ -228,19 +228,17 @@ public abstract class DateTimeUtils {
 
     @SuppressWarnings("deprecation")
     public static RubyTime newTime(final ThreadContext context, final Timestamp timestamp, final DateTimeZone defaultZone) {
-
-        final int year = timestamp.getYear() + 1900;
-        final int month = timestamp.getMonth() + 1;
-        final int day = timestamp.getDate();
-        final int hours = timestamp.getHours();
-        final int minutes = timestamp.getMinutes();
-        final int seconds = timestamp.getSeconds();
-        int nanos = timestamp.getNanos(); // max 999-999-999
-        final int millis = nanos / 1000000;
-        nanos = nanos % 1000000;
-
-        DateTime dateTime = new DateTime(year, month, day, hours, minutes, seconds, millis, defaultZone);
-        return RubyTime.newTime(context.runtime, dateTime, nanos);
+        // the timestamp's (wall-clock) fields are in the JVM's default zone, we re-interpret them in
+        // the given (AR default) zone - working with millis avoids calculating and validating fields
+        final long millis = timestamp.getTime();
+        final DateTimeZone jvmZone = DateTimeZone.getDefault();
+        final long utcMillis;
+        if ( defaultZone == jvmZone ) utcMillis = millis;
+        else {
+            final long localMillis = millis + jvmZone.getOffset(millis);
+            utcMillis = defaultZone == DateTimeZone.UTC ? localMillis : defaultZone.convertLocalToUTC(localMillis, false);
+        }
+        return RubyTime.newTime(context.runtime, new DateTime(utcMillis, defaultZone), timestamp.getNanos() % 1000000);
     }
 
     @SuppressWarnings("deprecation")
@@ -254,6 +252,34 @@ public abstract class DateTimeUtils {
         return RubyTime.newTime(context.runtime, dateTime, 0);
     }
 
+    /**
+     * Same as <code>newDateAsTime(context, date, zone).to_date</code> but the
+     * (frozen) Date instances get shared.
+     * @param context
+     * @param date
+     * @param zone
+     * @return a Ruby Date
+     * @see DateCache
+     */
+    @SuppressWarnings("deprecation")
+    public static IRubyObject newDateAsDate(final ThreadContext context, final Date date, DateTimeZone zone) {
+        final DateCache cache = DateCache.getInstance(context.runtime);
+        if ( cache == null ) return newDateAsTime(context, date, zone).callMethod(context, "to_date");
+
+        final int year = date.getYear() + 1900;
+        final int month = date.getMonth() + 1;
+        final int day = date.getDate();
+
+        if ( zone == null ) zone = DateTimeZone.getDefault();
+        final long key = DateCache.key(DateCache.TIME_TO_DATE, year, month, day);
+        final IRubyObject cached = cache.get(zone, key);
+        if ( cached != null ) return cached;
+
+        DateTime dateTime = new DateTime(year, month, day, 0, 0, 0, 0, zone);
+        final IRubyObject time = RubyTime.newTime(context.runtime, dateTime, 0);
+        return cache.put(zone, key, time.callMethod(context, "to_date"));
+    }
+
     @SuppressWarnings("deprecation")
     public static IRubyObject newDate(final ThreadContext context, final Date date, final DateTimeZone zone) {
 
@@ -261,7 +287,14 @@ public abstract class DateTimeUtils {
         final int month = date.getMonth() + 1;
         final int day = date.getDate();
 
-        return newDate(context, year, month, day, ISOChronology.getInstance(zone));
+        final DateCache cache = DateCache.getInstance(context.runtime);
+        if ( cache == null ) return newDate(context, year, month, day, ISOChronology.getInstance(zone));
+
+        final DateTimeZone dateZone = zone == null ? DateTimeZone.getDefault() : zone;
+        final long key = DateCache.key(DateCache.ISO_DATE, year, month, day);
+        final IRubyObject cached = cache.get(dateZone, key);
+        if ( cached != null ) return cached;
+        return cache.put(dateZone, key, newDate(context, year, month, day, ISOChronology.getInstance(dateZone)));
     }
 
     // @Deprecated
@@ -336,9 +369,18 @@ public abstract class DateTimeUtils {
 
         if ( bcEra ) year = -1 * year; // no + 1 since we use GJChronology
 
-        DateTime dateTime = new DateTime(year, month, day, 0, 0, 0, GJChronology.getInstance(defaultZone));
         final Ruby runtime = context.runtime;
-        return runtime.getClass("Date").newInstance(context, Java.getInstance(runtime, dateTime), Block.NULL_BLOCK);
+        final DateCache cache = DateCache.getInstance(runtime);
+        final DateTimeZone zone = defaultZone == null ? DateTimeZone.getDefault() : defaultZone;
+        final long key = DateCache.key(DateCache.GJ_DATE, year, month, day);
+        if ( cache != null ) {
+            final IRubyObject cached = cache.get(zone, key);
+            if ( cached != null ) return cached;
+        }
+
+        DateTime dateTime = new DateTime(year, month, day, 0, 0, 0, GJChronology.getInstance(zone));
+        final IRubyObject date = runtime.getClass("Date").newInstance(context, Java.getInstance(runtime, dateTime), Block.NULL_BLOCK);
+        return cache == null ? date : cache.put(zone, key, date);
     }
 
     public static IRubyObject parseTime(final ThreadContext context, final CharSequence str, final DateTimeZone defaultZone)
@@ -0,0 +1,64 @@
+package arjdbc.util;
+
+import java.math.BigDecimal;
+
+import org.jruby.RubyFixnum;
+import org.jruby.RubyInteger;
+
+/**
+ * Decimal helpers, for (the common) values that fit an unscaled long we avoid
+ * going through {@link java.math.BigInteger} or generic string parsing.
+ */
+public abstract class DecimalHelper {
+
+    // max digits an unscaled value might have to (always) fit a long
+    public static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * Parses a plain decimal string (e.g. "-12345.67") as an unscaled long.
+     * @param str
+     * @return the decimal or null if the value is not plain or does not fit a long
+     */
+    public static BigDecimal parsePlainDecimal(final CharSequence str) {
+        final int len = str.length();
+        if ( len == 0 ) return null;
+
+        int i = 0; boolean negative = false;
+        final char first = str.charAt(0);
+        if ( first == '-' || first == '+' ) {
+            negative = first == '-'; i++;
+        }
+
+        long unscaled = 0; int digits = 0; int scale = -1;
+        for ( ; i < len; i++ ) {
+            final char c = str.charAt(i);
+            if ( c >= '0' && c <= '9' ) {
+                if ( ++digits > MAX_LONG_DIGITS ) return null;
+                unscaled = unscaled * 10 + ( c - '0' );
+                if ( scale >= 0 ) scale++;
+            }
+            else if ( c == '.' && scale < 0 ) {
+                scale = 0;
+            }
+            else {
+                return null; // exponent, spaces, underscores ...
+            }
+        }
+        if ( digits == 0 ) return null;
+
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale < 0 ? 0 : scale);
+    }
+
+    public static BigDecimal parseDecimal(final String str) {
+        final BigDecimal value = parsePlainDecimal(str);
+        return value != null ? value : new BigDecimal(str);
+    }
+
+    public static BigDecimal toBigDecimal(final RubyInteger value) {
+        if ( value instanceof RubyFixnum ) {
+            return BigDecimal.valueOf(((RubyFixnum) value).getLongValue());
+        }
+        return new BigDecimal(value.getBigIntegerValue());
+    }
+
+}
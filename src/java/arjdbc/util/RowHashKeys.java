@@ -0,0 +1,55 @@
+package arjdbc.util;
+
+import org.jruby.Ruby;
+import org.jruby.RubyHash;
+import org.jruby.RubyString;
+import org.jruby.runtime.builtin.IRubyObject;
+
+/**
+ * (Column name) keys shared by all row hashes of a result.
+ *
+ * Keys are frozen strings with their hash code computed once, thus filling a
+ * row does not re-hash (nor dup-and-freeze) column names for every row.
+ */
+public final class RowHashKeys {
+
+    private final RubyString[] keys;
+
+    public RowHashKeys(final Ruby runtime, final RubyString[] names) {
+        final RubyString[] keys = new RubyString[names.length];
+        for ( int i = 0; i < names.length; i++ ) {
+            keys[i] = new Key(runtime, names[i]);
+        }
+        this.keys = keys;
+    }
+
+    public int size() { return keys.length; }
+
+    /**
+     * @param runtime
+     * @param values row values (in column order)
+     * @return a new row hash
+     */
+    public RubyHash newRow(final Ruby runtime, final IRubyObject[] values) {
+        final RubyHash row = new RubyHash(runtime, keys.length); // pre-sized
+        for ( int i = 0; i < keys.length; i++ ) row.fastASet(keys[i], values[i]);
+        return row;
+    }
+
+    @SuppressWarnings("serial")
+    private static final class Key extends RubyString {
+
+        private final int hash;
+
+        Key(final Ruby runtime, final RubyString name) {
+            super(runtime, runtime.getString(), name.getByteList().dup());
+            setFrozen(true);
+            this.hash = super.hashCode();
+        }
+
+        @Override
+        public int hashCode() { return hash; }
+
+    }
+
+}
@@ -25,8 +25,10 @@ package arjdbc.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.CharBuffer;
 
 import org.jcodings.Encoding;
+import org.jcodings.specific.UTF8Encoding;
 import org.jruby.Ruby;
 import org.jruby.RubyString;
 import org.jruby.util.ByteList;
@@ -71,6 +73,77 @@ public abstract class StringHelper {
         return new RubyString(runtime, runtime.getString(), str, enc);
     }
 
+    /**
+     * Creates a string from (a range of) characters, in case the default internal
+     * encoding is UTF-8 characters are encoded directly into the string's bytes.
+     * @param runtime
+     * @param chars
+     * @param off
+     * @param len
+     * @return a new string
+     */
+    public static RubyString newDefaultInternalString(final Ruby runtime, final char[] chars, final int off, final int len) {
+        Encoding enc = runtime.getDefaultInternalEncoding();
+        if (enc == null) enc = runtime.getEncodingService().getJavaDefault();
+        if (enc == UTF8Encoding.INSTANCE) {
+            return RubyString.newString(runtime, encodeUTF8(chars, off, len));
+        }
+        return new RubyString(runtime, runtime.getString(), CharBuffer.wrap(chars, off, len), enc);
+    }
+
+    /**
+     * Encodes characters as UTF-8 into an exactly sized byte list,
+     * (unpaired) surrogates are replaced with '?' same as Java does.
+     * @param chars
+     * @param off
+     * @param len
+     * @return UTF-8 bytes
+     */
+    public static ByteList encodeUTF8(final char[] chars, final int off, final int len) {
+        final int end = off + len;
+        int size = 0;
+        for ( int i = off; i < end; i++ ) {
+            final char c = chars[i];
+            if ( c < 0x80 ) size += 1;
+            else if ( c < 0x800 ) size += 2;
+            else if ( Character.isSurrogate(c) ) {
+                if ( Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1]) ) {
+                    size += 4; i++;
+                }
+                else size += 1;
+            }
+            else size += 3;
+        }
+
+        final byte[] bytes = new byte[size]; int b = 0;
+        for ( int i = off; i < end; i++ ) {
+            final char c = chars[i];
+            if ( c < 0x80 ) {
+                bytes[b++] = (byte) c;
+            }
+            else if ( c < 0x800 ) {
+                bytes[b++] = (byte) (0xC0 | (c >> 6));
+                bytes[b++] = (byte) (0x80 | (c & 0x3F));
+            }
+            else if ( Character.isSurrogate(c) ) {
+                if ( Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(chars[i + 1]) ) {
+                    final int cp = Character.toCodePoint(c, chars[++i]);
+                    bytes[b++] = (byte) (0xF0 | (cp >> 18));
+                    bytes[b++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    bytes[b++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    bytes[b++] = (byte) (0x80 | (cp & 0x3F));
+                }
+                else bytes[b++] = '?';
+            }
+            else {
+                bytes[b++] = (byte) (0xE0 | (c >> 12));
+                bytes[b++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[b++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return new ByteList(bytes, UTF8Encoding.INSTANCE, false);
+    }
+
     // NOTE: a 'better' RubyString.newInternalFromJavaExternal - to be back-ported in JRuby 9.2
     public static RubyString newDefaultInternalString(final Ruby runtime, final String str) {
         Encoding enc = runtime.getDefaultInternalEncoding();
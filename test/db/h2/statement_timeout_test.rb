@@ -0,0 +1,87 @@
+require 'test_helper'
+require 'db/h2'
+require 'timeout'
+
+class H2StatementTimeoutTest < Test::Unit::TestCase
+
+  # takes minutes to complete, H2 checks for cancellation while iterating
+  SLOW_SQL = 'SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000000) r WHERE MOD(r.X, 7) = 3'
+
+  MAX_ELAPSED = 5.0 # seconds (well below the query's run time)
+
+  def test_with_statement_timeout_cancels_query
+    started = now
+    error = assert_raise(ActiveRecord::ActiveRecordError) do
+      connection.with_statement_timeout(200) { connection.exec_query(SLOW_SQL) }
+    end
+    assert_match(/cancel/i, error.message)
+    assert_operator now - started, :<, MAX_ELAPSED # cancelled (and not retried)
+    assert_equal 0, connection.raw_connection.statement_timeout_ms
+    assert_connection_usable
+  end
+
+  def test_statement_timeout_ms
+    jdbc_connection = connection.raw_connection
+    timeout = jdbc_connection.statement_timeout_ms
+    begin
+      jdbc_connection.statement_timeout_ms = 200
+      started = now
+      assert_raise(ActiveRecord::ActiveRecordError) { connection.execute(SLOW_SQL) }
+      assert_operator now - started, :<, MAX_ELAPSED
+    ensure
+      jdbc_connection.statement_timeout_ms = timeout
+    end
+    assert_connection_usable
+  end
+
+  def test_statement_timeout_does_not_cancel_later_queries
+    jdbc_connection = connection.raw_connection
+    timeout = jdbc_connection.statement_timeout_ms
+    begin
+      jdbc_connection.statement_timeout_ms = 50 # watchdogs of finished queries fire during later ones
+      500.times { assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows }
+    ensure
+      jdbc_connection.statement_timeout_ms = timeout
+    end
+    assert_false jdbc_connection.cancel_statement # no statement running
+  end
+
+  def test_timeout_interrupt_cancels_query
+    started = now
+    assert_raise(Timeout::Error) { Timeout.timeout(0.2) { connection.exec_query(SLOW_SQL) } }
+    assert_operator now - started, :<, MAX_ELAPSED
+    assert_connection_usable
+  end
+
+  def test_cancel_statement
+    adapter = connection
+    thread = Thread.new do
+      begin
+        adapter.exec_query(SLOW_SQL); nil
+      rescue ActiveRecord::ActiveRecordError => e
+        e
+      end
+    end
+    started = now
+    cancelled = false
+    until cancelled || now - started > MAX_ELAPSED
+      sleep 0.05
+      cancelled = adapter.raw_connection.cancel_statement
+    end
+    assert_true cancelled
+    assert_kind_of ActiveRecord::ActiveRecordError, thread.value
+    assert_operator now - started, :<, MAX_ELAPSED
+    assert_connection_usable
+  end
+
+  private
+
+  def assert_connection_usable
+    assert_equal [ [ 1 ] ], connection.exec_query('SELECT 1').rows
+  end
+
+  def now
+    Process.clock_gettime(Process::CLOCK_MONOTONIC)
+  end
+
+end
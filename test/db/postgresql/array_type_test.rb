@@ -71,6 +71,18 @@ class PostgreSQLArrayTypeTest < Test::Unit::TestCase
     assert_cycle(['this has','some "s that need to be escaped"', "some 's that need to be escaped too"])
   end
 
+  def test_integer_values
+    x = PgArray.create!(:tag_count => [1, nil, 3])
+    assert_equal [1, nil, 3], x.reload.tag_count
+  end
+
+  def test_packed_java_array_bind
+    type = PgArray.type_for_attribute('tag_count')
+    binds = [ ActiveRecord::Relation::QueryAttribute.new('tag_count', [4, 2].to_java(:int), type) ]
+    @connection.exec_insert 'INSERT INTO pg_arrays (tag_count) VALUES ($1)', 'SQL', binds
+    assert_equal [4, 2], PgArray.last.tag_count
+  end
+
   private
   def assert_cycle array
     # test creation
@@ -213,6 +213,88 @@ class PostgresSimpleTest < Test::Unit::TestCase
     assert_equal 'some', connection.type_cast(:some, nil)
   end
 
+  def test_copy_from
+    Entry.delete_all
+    rows = [ [ "copied\ttab", "line\nbreak \\ back-slash", BigDecimal('1.25') ], [ 'copied', nil, 2 ] ]
+    assert_equal 2, connection.copy_from(:entries, %w(title content rating), rows.each)
+    assert_equal rows.first, Entry.order(:id).pluck(:title, :content, :rating).first
+    assert_equal [ nil, 2 ], Entry.where(:title => 'copied').pluck(:content, :rating).first
+
+    io = StringIO.new("csv,\"quoted, content\",3.5\n")
+    assert_equal 1, connection.copy_from('entries', %w(title content rating), io, format: :csv)
+    assert_equal [ 'quoted, content', 3.5 ], Entry.where(:title => 'csv').pluck(:content, :rating).first
+
+    assert_raise(ArgumentError) { connection.copy_from(:entries, %w(title), [ [ 'csv' ] ].each, format: :csv) }
+    assert_raise(ArgumentError) { connection.copy_from(:entries, %w(title), StringIO.new("x\n"), format: 'csv) TO STDOUT --') }
+    assert_equal 1, connection.copy_from(:entries, %w(title), [ [ 'text' ] ].each, format: :text)
+  end
+
+  def test_copy_to
+    Entry.delete_all
+    Entry.create! :title => 'first', :rating => 1.5
+    Entry.create! :title => 'second, "quoted"'
+    sql = 'COPY (SELECT title, rating FROM entries ORDER BY id) TO STDOUT (FORMAT csv)'
+
+    io = StringIO.new
+    assert_equal 2, connection.copy_to(sql, io)
+    assert_equal "first,1.50\n\"second, \"\"quoted\"\"\",\n", io.string
+
+    chunks = []
+    assert_equal 2, connection.copy_to(sql) { |chunk| chunks << chunk }
+    assert_equal io.string, chunks.join
+
+    out = java.io.ByteArrayOutputStream.new
+    assert_equal 2, connection.copy_to(sql, out)
+    assert_equal io.string, String.from_java_bytes(out.toByteArray)
+  end
+
+  def test_exec_multi
+    Entry.delete_all
+    Entry.create! :title => 'multi'
+    sql = "UPDATE entries SET content = 'multi'; SELECT title FROM entries; SELECT COUNT(*) AS c FROM entries"
+    results = connection.exec_multi(sql)
+    assert_equal 3, results.size
+    assert_equal 1, results[0]
+    assert_equal [ [ 'multi' ] ], results[1].rows
+    assert_equal [ 'c' ], results[2].columns
+
+    yielded = []
+    assert_equal 3, connection.exec_multi(sql) { |result| yielded << result }
+    assert_equal [ [ 'multi' ] ], yielded[1].rows
+  end
+
+  def test_exec_query_async_resolves_types_on_calling_thread
+    Entry.delete_all
+    Entry.create! :title => 'async', :rating => 1.5
+
+    threads = []
+    connection.singleton_class.send(:define_method, :get_oid_type) do |*args|
+      threads << Thread.current
+      super(*args)
+    end
+    begin
+      result = connection.exec_query_async('SELECT title, rating FROM entries', 'SQL').result
+      assert_equal [ [ 'async', 1.5 ] ], result.cast_values
+      assert_not_empty threads
+      assert_equal [ Thread.current ], threads.uniq
+    ensure
+      connection.singleton_class.send(:remove_method, :get_oid_type)
+    end
+  end
+
+  def test_select_in_batches_rolls_back_when_block_raises
+    Entry.delete_all
+    Entry.create! :title => 'first'
+
+    assert_raise(RuntimeError) do
+      connection.select_in_batches('SELECT title FROM entries', nil, [], batch_size: 1) do
+        connection.execute "UPDATE entries SET title = 'updated'"
+        raise 'failed'
+      end
+    end
+    assert_equal 'first', Entry.first.title
+  end
+
   # def test_jdbc_error
   #   begin
   #     disable_logger { connection.exec_query('SELECT * FROM bogus') }
@@ -324,6 +324,65 @@ module SimpleTestMethods
 
     end
 
+    def test_timestamp_round_trip_with_default_timezone_utc
+      skip "with_system_tz not working in tomcat" if ActiveRecord::Base.connection.raw_connection.jndi?
+
+      # JVM zone differs from the default zone, timestamps get converted
+      with_system_tz 'America/New_York' do
+        with_timezone_config default: :utc do
+          assert_timestamp_round_trip Time.utc(2010, 3, 14, 7, 30, 0)
+          assert_timestamp_round_trip Time.utc(2010, 3, 14, 6, 59, 59, 123456)
+          assert_timestamp_round_trip Time.utc(2010, 11, 7, 5, 30, 0)
+        end
+      end
+    end
+
+    def test_timestamp_round_trip_with_default_timezone_local
+      skip "with_system_tz not working in tomcat" if ActiveRecord::Base.connection.raw_connection.jndi?
+
+      with_system_tz 'Europe/Prague' do
+        with_timezone_config default: :local do
+          assert_timestamp_round_trip Time.local(2019, 3, 31, 1, 59, 59, 123456)
+          assert_timestamp_round_trip Time.local(2019, 3, 31, 3, 0, 0) # right after the spring gap
+          assert_timestamp_round_trip Time.local(2019, 10, 27, 1, 30, 0, 999999)
+        end
+      end
+    end
+
+    def test_timestamp_round_trip_with_default_timezone_local_and_env_tz
+      skip "with_system_tz not working in tomcat" if ActiveRecord::Base.connection.raw_connection.jndi?
+
+      # local zone comes from ENV['TZ'] while the JVM stays on another zone
+      with_java_tz 'UTC' do
+        with_env_tz 'Europe/Prague' do
+          with_timezone_config default: :local do
+            assert_timestamp_round_trip Time.local(2019, 3, 31, 3, 30, 0, 654321)
+            assert_timestamp_round_trip Time.local(2019, 7, 1, 12, 0, 0, 1)
+          end
+        end
+      end
+    end
+
+    def assert_timestamp_round_trip(time)
+      connection = ActiveRecord::Base.connection
+      connection.create_table(:some_stamps, force: true) { |t| t.datetime :at, precision: 6 }
+      stamp_class = Class.new(ActiveRecord::Base)
+      stamp_class.table_name = 'some_stamps'
+      stamp = stamp_class.create!(at: time)
+
+      saved_time = stamp_class.find(stamp.id).at
+      if connection.respond_to?(:supports_datetime_with_precision?) && connection.supports_datetime_with_precision?
+        assert_equal time, saved_time
+        assert_equal time.usec, saved_time.usec
+      else
+        assert_equal time.change(usec: 0), saved_time.change(usec: 0)
+      end
+      assert_equal time.utc_offset, saved_time.utc_offset
+    ensure
+      connection.drop_table :some_stamps, if_exists: true if connection
+    end
+    private :assert_timestamp_round_trip
+
     #
 
     def test_preserving_time_objects_with_utc_time_conversion_to_default_timezone_local
@@ -521,6 +580,23 @@ module SimpleTestMethods
     assert_equal binary_string, e.reload.sample_binary
   end
 
+  def test_lazy_lobs_in_transaction
+    binary_string = "\000ABCDEFGHIJKLMNOPQRSTUVWXYZ'\001\003"
+    e = DbType.create! :sample_binary => binary_string
+
+    jdbc_connection = DbType.connection.raw_connection
+    begin
+      jdbc_connection.lazy_lobs = true
+      DbType.transaction do
+        value = DbType.connection.select_value "SELECT sample_binary FROM db_types WHERE id = #{e.id}"
+        value = value.read if value.respond_to?(:read) # JdbcConnection::Lob
+        assert_equal binary_string, value
+      end
+    ensure
+      jdbc_connection.lazy_lobs = false
+    end
+  end
+
   def test_small_decimal
     test_value = 7.3
     db_type = DbType.new(:sample_small_decimal => test_value)
@@ -548,6 +624,13 @@ module SimpleTestMethods
     assert_equal test_value, db_type.reload.decimal_with_scale
   end
 
+  def test_decimal_values_with_scale
+    values = [ BigDecimal('-1.50'), BigDecimal('0.00'), BigDecimal('123456789012.345'), 42 ]
+    values.each { |value| DbType.create!(:decimal_with_scale => value) }
+    saved = DbType.where.not(:decimal_with_scale => nil).order(:id).map(&:decimal_with_scale)
+    assert_equal values.map { |value| BigDecimal(value.to_s) }, saved.last(values.size)
+  end
+
   def test_big_decimal
     test_value = BigDecimal('9876543210_9876543210_9876543210.0')
     db_type = DbType.create!(:big_decimal => test_value)
@@ -918,6 +1001,343 @@ module SimpleTestMethods
     assert_equal 'user12', result.rows[1][1]
   end
 
+  def test_exec_query_columnar_result
+    Entry.delete_all
+    Entry.create! :title => 'entry1', :rating => 1
+    Entry.create! :title => 'entry2', :rating => 2
+
+    jdbc_connection = Entry.connection.raw_connection
+    begin
+      jdbc_connection.columnar_results = true
+      result = Entry.connection.exec_query 'SELECT title, rating FROM entries ORDER BY title'
+    ensure
+      jdbc_connection.columnar_results = false
+    end
+
+    assert_kind_of ActiveRecord::Result, result
+    assert_equal 2, result.length
+    assert_equal %w(entry1 entry2), result.column_values('title')
+    assert_equal 'entry2', result.value_at(1, 'title')
+    assert_equal 'entry1', result.first['title']
+    assert_equal %w(entry1 entry2), result.first(2).map { |row| row['title'] }
+    assert_equal %w(entry2), result.last(1).map { |row| row['title'] }
+    assert_equal [ 'entry1', 'entry2' ], result.rows.map(&:first)
+    assert_equal 'entry1', result.to_a.first['title']
+  end
+
+  def test_execute_prepared_query_reuses_cached_statement
+    Entry.delete_all
+    Entry.create! :title => 'entry1', :rating => 1
+
+    jdbc_connection = Entry.connection.raw_connection
+    sql = 'SELECT title, rating FROM entries'
+    statement = jdbc_connection.prepare_statement(sql)
+    begin
+      2.times do
+        result = jdbc_connection.execute_prepared_query(sql, [], statement)
+        assert_equal %w(title rating), result.columns.map(&:downcase)
+        assert_equal [[ 'entry1', 1 ]], result.rows
+      end
+    ensure
+      statement.close
+    end
+  end
+
+  def test_execute_prepared_query_after_column_rename
+    connection = ActiveRecord::Base.connection
+    connection.create_table(:some_foos, force: true) { |t| t.string :name }
+    connection.execute "INSERT INTO some_foos (name) VALUES ('foo')"
+
+    jdbc_connection = connection.raw_connection
+    sql = 'SELECT * FROM some_foos'
+    statement = jdbc_connection.prepare_statement(sql)
+    begin
+      result = jdbc_connection.execute_prepared_query(sql, [], statement)
+      assert_equal %w(id name), result.columns.map(&:downcase)
+
+      connection.rename_column :some_foos, :name, :title
+      result = jdbc_connection.execute_prepared_query(sql, [], statement)
+      assert_equal %w(id title), result.columns.map(&:downcase)
+      assert_equal 'foo', result.rows.first.last
+    ensure
+      statement.close
+    end
+  ensure
+    connection.drop_table :some_foos, if_exists: true
+  end
+
+  def test_exec_query_parallel_conversion
+    Entry.delete_all
+    5.times { |i| Entry.create! :title => "entry#{i}", :rating => i }
+
+    jdbc_connection = Entry.connection.raw_connection
+    sql = 'SELECT title, rating FROM entries ORDER BY title'
+    expected = Entry.connection.exec_query(sql).rows
+    begin
+      jdbc_connection.parallel_conversion_threshold = 2
+      result = Entry.connection.exec_query sql
+    ensure
+      jdbc_connection.parallel_conversion_threshold = 0
+    end
+
+    assert_kind_of ActiveRecord::Result, result
+    assert_equal 5, result.length
+    assert_equal expected, result.rows
+  end
+
+  def test_exec_query_dedup_strings
+    Entry.delete_all
+    4.times { |i| Entry.create! :title => "entry#{i % 2}" }
+
+    jdbc_connection = Entry.connection.raw_connection
+    begin
+      jdbc_connection.dedup_strings = true
+      result = Entry.connection.exec_query 'SELECT title FROM entries ORDER BY title'
+    ensure
+      jdbc_connection.dedup_strings = false
+    end
+
+    titles = result.rows.map(&:first)
+    assert_equal %w(entry0 entry0 entry1 entry1), titles
+    assert_same titles[0], titles[1]
+    assert titles[0].frozen?
+  end
+
+  def test_select_repeated_dates_shared
+    raw_date_time = ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time?
+    ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time = false
+
+    DbType.delete_all
+    3.times { |i| DbType.create! :sample_date => Date.new(2007, 1, i % 2 + 1) }
+
+    dates = DbType.connection.raw_connection.execute_query('SELECT sample_date FROM db_types ORDER BY sample_date').map { |row| row.values.first }
+    assert_equal [ Date.new(2007, 1, 1), Date.new(2007, 1, 1), Date.new(2007, 1, 2) ], dates
+    assert_instance_of Date, dates[0]
+    assert_same dates[0], dates[1]
+    assert dates[0].frozen?
+  ensure
+    ActiveRecord::ConnectionAdapters::JdbcConnection.raw_date_time = raw_date_time
+  end if defined? JRUBY_VERSION
+
+  def test_date_cache_shares_frozen_dates
+    require 'jruby'
+    context = JRuby.runtime.current_context
+    date_time_utils = Java::arjdbc.util.DateTimeUtils
+
+    date1 = date_time_utils.newDateAsDate(context, java.sql.Date.valueOf('2007-01-01'), nil)
+    date2 = date_time_utils.newDateAsDate(context, java.sql.Date.valueOf('2007-01-01'), nil)
+    date3 = date_time_utils.newDateAsDate(context, java.sql.Date.valueOf('2007-01-02'), nil)
+
+    assert_equal Date.new(2007, 1, 1), date1
+    assert_same date1, date2
+    assert date1.frozen?
+    assert_equal Date.new(2007, 1, 2), date3
+    assert_not_same date1, date3
+  end if defined? JRUBY_VERSION
+
+  def test_select_in_batches
+    Entry.delete_all
+    5.times { |i| Entry.create! :title => "entry#{i}" }
+
+    batches = []
+    Entry.connection.select_in_batches('SELECT title FROM entries ORDER BY title', nil, [], batch_size: 2) do |result|
+      assert_kind_of ActiveRecord::Result, result
+      batches << result.rows.map(&:first)
+    end
+    assert_equal [ %w(entry0 entry1), %w(entry2 entry3), %w(entry4) ], batches
+
+    batch = Entry.connection.select_in_batches('SELECT * FROM entries', nil, [], batch_size: 10).first
+    assert_equal 5, batch.length
+
+    assert_raise(ArgumentError) do
+      Entry.connection.select_in_batches('SELECT * FROM entries', nil, [], batch_size: 0) { }
+    end
+  end
+
+  def test_exec_insert_batch
+    Entry.delete_all
+    connection = Entry.connection
+    type = Entry.type_for_attribute('title')
+    binds_list = 5.times.map { |i| [ ActiveRecord::Relation::QueryAttribute.new('title', "entry#{i}", type) ] }
+    counts = connection.exec_insert_batch('INSERT INTO entries (title) VALUES (?)', 'SQL', binds_list, batch_size: 2)
+    assert_equal 5, counts.size
+    assert_equal 5, Entry.count
+    assert_equal %w(entry0 entry1 entry2 entry3 entry4), Entry.order(:title).pluck(:title)
+  end
+
+  def test_binds_with_changing_types_for_same_sql
+    Entry.delete_all
+    Entry.create! :title => '42', :rating => 42
+    sql = 'SELECT title FROM entries WHERE title = ?'
+    string_bind = ActiveRecord::Relation::QueryAttribute.new('title', '42', Entry.type_for_attribute('title'))
+    value_bind = ActiveRecord::Relation::QueryAttribute.new('title', '42', ActiveModel::Type::Value.new)
+    3.times do
+      assert_equal [ [ '42' ] ], Entry.connection.exec_query(sql, 'SQL', [ string_bind ]).rows
+      assert_equal [ [ '42' ] ], Entry.connection.exec_query(sql, 'SQL', [ value_bind ]).rows
+    end
+  end
+
+  def test_with_statement_timeout
+    connection = Entry.connection
+    timeout = connection.raw_connection.statement_timeout_ms
+    connection.with_statement_timeout(5000) do
+      assert_equal 5000, connection.raw_connection.statement_timeout_ms
+      assert_equal 0, Entry.where(:title => 'timeout').count
+    end
+    assert_equal timeout, connection.raw_connection.statement_timeout_ms
+    assert_equal false, connection.raw_connection.cancel_statement # nothing running
+  end
+
+  def test_exec_query_async
+    Entry.delete_all
+    3.times { |i| Entry.create! :title => "async#{i}" }
+    connection = Entry.connection
+    futures = 3.times.map do |i|
+      connection.exec_query_async("SELECT title FROM entries WHERE title = 'async#{i}'", 'SQL')
+    end
+    assert_equal [ [ [ 'async0' ] ], [ [ 'async1' ] ], [ [ 'async2' ] ] ], futures.map { |future| future.result.rows }
+    assert_false futures.first.pending?
+  end
+
+  def test_exec_multi_with_single_statement
+    Entry.delete_all
+    Entry.create! :title => 'multi'
+    results = Entry.connection.exec_multi("SELECT title FROM entries WHERE title = 'multi'")
+    assert_equal [ [ [ 'multi' ] ] ], results.map(&:rows)
+  end
+
+  def test_query_result_cache
+    Entry.delete_all
+    Entry.create! :title => 'cached'
+    connection = Entry.connection
+    jdbc_connection = connection.raw_connection
+    result_cache_ttl_ms = jdbc_connection.result_cache_ttl_ms
+    sql = "SELECT title FROM entries WHERE title LIKE 'cached%'"
+    begin
+      jdbc_connection.result_cache_ttl_ms = 60_000
+      assert_equal [ [ 'cached' ] ], jdbc_connection.execute_query(sql).rows
+      hits = jdbc_connection.result_cache_stats[:hits]
+      rows = jdbc_connection.execute_query(sql).rows
+      assert_equal [ [ 'cached' ] ], rows
+      assert_equal hits + 1, jdbc_connection.result_cache_stats[:hits]
+      rows.first.first << ' (modified)' # does not change the cached result
+      assert_equal [ [ 'cached' ] ], jdbc_connection.execute_query(sql).rows
+
+      Entry.create! :title => 'cached again' # invalidates
+      assert_equal [ [ 'cached' ], [ 'cached again' ] ], jdbc_connection.execute_query(sql).rows.sort
+
+      connection.exec_query "INSERT INTO entries (title) VALUES ('cached 3')" # invalidates
+      assert_equal 3, jdbc_connection.execute_query(sql).rows.size
+
+      jdbc_connection.execute_query_raw "UPDATE entries SET title = 'cached 4' WHERE title = 'cached 3'" # invalidates
+      assert_equal [ 'cached 4' ], jdbc_connection.execute_query(sql).rows.map(&:first).grep(/4/)
+
+      hits = jdbc_connection.result_cache_stats[:hits]
+      2.times { jdbc_connection.execute_query "SELECT title, CURRENT_TIMESTAMP FROM entries" }
+      assert_equal hits, jdbc_connection.result_cache_stats[:hits] # volatile (or user functions) not cached
+    ensure
+      jdbc_connection.result_cache_ttl_ms = result_cache_ttl_ms
+      jdbc_connection.clear_result_cache
+    end
+  end
+
+  def test_query_result_cache_time_binds
+    connection = DbType.connection
+    skip 'prepared statements disabled' unless connection.prepared_statements
+    jdbc_connection = connection.raw_connection
+    result_cache_ttl_ms = jdbc_connection.result_cache_ttl_ms
+    type = DbType.type_for_attribute('sample_datetime')
+    sql = 'SELECT COUNT(*) FROM db_types WHERE sample_datetime < ?'
+    bind = lambda { |time| [ ActiveRecord::Relation::QueryAttribute.new('sample_datetime', time, type) ] }
+    time = Time.utc(2020, 1, 1, 12, 0, 0, 250_000)
+    begin
+      jdbc_connection.result_cache_ttl_ms = 60_000
+      connection.exec_query sql, 'SQL', bind.call(time)
+      hits = jdbc_connection.result_cache_stats[:hits]
+      connection.exec_query sql, 'SQL', bind.call(time)
+      assert_equal hits + 1, jdbc_connection.result_cache_stats[:hits]
+
+      connection.exec_query sql, 'SQL', bind.call(time + 0.001) # same second, a different key
+      assert_equal hits + 1, jdbc_connection.result_cache_stats[:hits]
+    ensure
+      jdbc_connection.result_cache_ttl_ms = result_cache_ttl_ms
+      jdbc_connection.clear_result_cache
+    end
+  end
+
+  def test_deferred_writes
+    Entry.delete_all
+    connection = Entry.connection
+    jdbc_connection = connection.raw_connection
+    deferred_writes = jdbc_connection.deferred_writes?
+    type = Entry.type_for_attribute('title')
+    sql = 'INSERT INTO entries (title) VALUES (?)'
+    begin
+      jdbc_connection.deferred_writes = true
+      Entry.transaction do
+        3.times do |i|
+          binds = [ ActiveRecord::Relation::QueryAttribute.new('title', "deferred#{i}", type) ]
+          assert_nil connection.exec_deferred(sql, 'SQL', binds)
+        end
+        assert_equal 3, jdbc_connection.deferred_write_count
+        assert_equal 3, Entry.count # flushed before reading
+        assert_equal 0, jdbc_connection.deferred_write_count
+        binds = [ ActiveRecord::Relation::QueryAttribute.new('title', 'deferred3', type) ]
+        connection.exec_deferred(sql, 'SQL', binds)
+      end
+      assert_equal 4, Entry.count
+
+      Entry.transaction do
+        binds = [ ActiveRecord::Relation::QueryAttribute.new('title', 'deferred4', type) ]
+        connection.exec_deferred(sql, 'SQL', binds)
+        raise ActiveRecord::Rollback
+      end
+      assert_equal 4, Entry.count
+    ensure
+      jdbc_connection.deferred_writes = deferred_writes
+    end
+  end
+
+  def test_prepared_statement_cache
+    connection = Entry.connection
+    skip 'prepared statements disabled' unless connection.prepared_statements
+
+    jdbc_connection = connection.raw_connection
+    limit = jdbc_connection.statement_limit
+    begin
+      jdbc_connection.statement_limit = 100 # opt-in (jdbc_statement_cache: true)
+      jdbc_connection.clear_statement_cache
+      hits = jdbc_connection.statement_cache_stats[:hits]
+      3.times { |i| Entry.create! :title => "entry#{i}" }
+      assert_operator jdbc_connection.statement_cache_stats[:hits], :>=, hits + 2
+      assert_equal 3, Entry.where(:title => %w(entry0 entry1 entry2)).count
+
+      jdbc_connection.statement_limit = 0
+      assert_equal 0, jdbc_connection.statement_cache_stats[:size]
+      Entry.create! :title => 'entry3'
+      assert_equal 0, jdbc_connection.statement_cache_stats[:size]
+    ensure
+      jdbc_connection.statement_limit = limit
+    end
+  end
+
+  def test_exec_query_raw_slices
+    Entry.delete_all
+    5.times { |i| Entry.create! :title => "entry#{i}" }
+
+    slices = []
+    Entry.connection.exec_query_raw_slices('SELECT title FROM entries ORDER BY title', 'SQL', [], slice_size: 2) do |rows|
+      slices << rows.map(&:first)
+    end
+    assert_equal [ %w(entry0 entry1), %w(entry2 entry3), %w(entry4) ], slices
+
+    titles = []
+    Entry.connection.exec_query_raw_slices('SELECT title FROM entries ORDER BY title', 'SQL', [], slice_size: 2, reuse_rows: true) do |rows|
+      titles.concat rows.map(&:first)
+    end
+    assert_equal %w(entry0 entry1 entry2 entry3 entry4), titles
+  end
+
   def test_exec_query_empty_result; require 'set'
     Entry.delete_all; User.delete_all
 